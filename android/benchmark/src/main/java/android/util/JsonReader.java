@@ -0,0 +1,60 @@
+package android.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Takes the place of the android-all JsonReader, which refills its buffer through an arraycopy overload
+ * only ART provides. Gson's reader, which the Android one derives from, does the reading.
+ */
+public final class JsonReader implements Closeable {
+
+    private final com.google.gson.stream.JsonReader mReader;
+
+    public JsonReader(Reader in) {
+        mReader = new com.google.gson.stream.JsonReader(in);
+    }
+
+    public JsonToken peek() throws IOException {
+        return JsonToken.valueOf(mReader.peek().name());
+    }
+
+    public void beginObject() throws IOException {
+        mReader.beginObject();
+    }
+
+    public void endObject() throws IOException {
+        mReader.endObject();
+    }
+
+    public void beginArray() throws IOException {
+        mReader.beginArray();
+    }
+
+    public void endArray() throws IOException {
+        mReader.endArray();
+    }
+
+    public String nextName() throws IOException {
+        return mReader.nextName();
+    }
+
+    public String nextString() throws IOException {
+        return mReader.nextString();
+    }
+
+    public boolean nextBoolean() throws IOException {
+        return mReader.nextBoolean();
+    }
+
+    public void nextNull() throws IOException {
+        mReader.nextNull();
+    }
+
+    @Override
+    public void close() throws IOException {
+        mReader.close();
+    }
+
+}
@@ -0,0 +1,17 @@
+package android.util;
+
+/**
+ * Takes the place of the android-all JsonToken, along with the JsonReader that returns it.
+ */
+public enum JsonToken {
+    BEGIN_ARRAY,
+    END_ARRAY,
+    BEGIN_OBJECT,
+    END_OBJECT,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+}
@@ -0,0 +1,16 @@
+package android.util;
+
+/**
+ * Takes the place of the android-all Log, whose native logger is not available on a JVM.
+ */
+public final class Log {
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        return 0;
+    }
+
+}
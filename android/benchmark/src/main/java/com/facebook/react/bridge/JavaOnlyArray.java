@@ -0,0 +1,92 @@
+package com.facebook.react.bridge;
+
+import java.util.ArrayList;
+
+/**
+ * Plain JVM array standing in for the bridge arrays, as the React Native class of the same name does in its tests.
+ */
+public class JavaOnlyArray implements WritableArray {
+
+    private final ArrayList<Object> mBackingList = new ArrayList<>();
+
+    @Override
+    public int size() {
+        return mBackingList.size();
+    }
+
+    @Override
+    public boolean isNull(int index) {
+        return mBackingList.get(index) == null;
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        return (Boolean) mBackingList.get(index);
+    }
+
+    @Override
+    public double getDouble(int index) {
+        return ((Number) mBackingList.get(index)).doubleValue();
+    }
+
+    @Override
+    public int getInt(int index) {
+        return ((Number) mBackingList.get(index)).intValue();
+    }
+
+    @Override
+    public String getString(int index) {
+        return (String) mBackingList.get(index);
+    }
+
+    @Override
+    public ReadableArray getArray(int index) {
+        return (ReadableArray) mBackingList.get(index);
+    }
+
+    @Override
+    public ReadableMap getMap(int index) {
+        return (ReadableMap) mBackingList.get(index);
+    }
+
+    @Override
+    public ReadableType getType(int index) {
+        return JavaOnlyMap.typeOf(mBackingList.get(index));
+    }
+
+    @Override
+    public void pushNull() {
+        mBackingList.add(null);
+    }
+
+    @Override
+    public void pushBoolean(boolean value) {
+        mBackingList.add(value);
+    }
+
+    @Override
+    public void pushDouble(double value) {
+        mBackingList.add(value);
+    }
+
+    @Override
+    public void pushInt(int value) {
+        mBackingList.add(value);
+    }
+
+    @Override
+    public void pushString(String value) {
+        mBackingList.add(value);
+    }
+
+    @Override
+    public void pushArray(WritableArray array) {
+        mBackingList.add(array);
+    }
+
+    @Override
+    public void pushMap(WritableMap map) {
+        mBackingList.add(map);
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.facebook.react.bridge;
+
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Plain JVM map standing in for the bridge maps, as the React Native class of the same name does in its tests.
+ */
+public class JavaOnlyMap implements WritableMap {
+
+    private final HashMap<String, Object> mBackingMap = new HashMap<>();
+
+    static ReadableType typeOf(Object value) {
+        if (value == null) {
+            return ReadableType.Null;
+        } else if (value instanceof Boolean) {
+            return ReadableType.Boolean;
+        } else if (value instanceof Number) {
+            return ReadableType.Number;
+        } else if (value instanceof String) {
+            return ReadableType.String;
+        } else if (value instanceof ReadableMap) {
+            return ReadableType.Map;
+        }
+        return ReadableType.Array;
+    }
+
+    @Override
+    public boolean hasKey(String name) {
+        return mBackingMap.containsKey(name);
+    }
+
+    @Override
+    public boolean isNull(String name) {
+        return mBackingMap.get(name) == null;
+    }
+
+    @Override
+    public boolean getBoolean(String name) {
+        return (Boolean) mBackingMap.get(name);
+    }
+
+    @Override
+    public double getDouble(String name) {
+        return ((Number) mBackingMap.get(name)).doubleValue();
+    }
+
+    @Override
+    public int getInt(String name) {
+        return ((Number) mBackingMap.get(name)).intValue();
+    }
+
+    @Override
+    public String getString(String name) {
+        return (String) mBackingMap.get(name);
+    }
+
+    @Override
+    public ReadableArray getArray(String name) {
+        return (ReadableArray) mBackingMap.get(name);
+    }
+
+    @Override
+    public ReadableMap getMap(String name) {
+        return (ReadableMap) mBackingMap.get(name);
+    }
+
+    @Override
+    public ReadableType getType(String name) {
+        return typeOf(mBackingMap.get(name));
+    }
+
+    @Override
+    public ReadableMapKeySetIterator keySetIterator() {
+        final Iterator<String> keys = mBackingMap.keySet().iterator();
+        return new ReadableMapKeySetIterator() {
+            @Override
+            public boolean hasNextKey() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public String nextKey() {
+                return keys.next();
+            }
+        };
+    }
+
+    @Override
+    public void putNull(String key) {
+        mBackingMap.put(key, null);
+    }
+
+    @Override
+    public void putBoolean(String key, boolean value) {
+        mBackingMap.put(key, value);
+    }
+
+    @Override
+    public void putDouble(String key, double value) {
+        mBackingMap.put(key, value);
+    }
+
+    @Override
+    public void putInt(String key, int value) {
+        mBackingMap.put(key, value);
+    }
+
+    @Override
+    public void putString(String key, String value) {
+        mBackingMap.put(key, value);
+    }
+
+    @Override
+    public void putArray(String key, WritableArray value) {
+        mBackingMap.put(key, value);
+    }
+
+    @Override
+    public void putMap(String key, WritableMap value) {
+        mBackingMap.put(key, value);
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake of the React Native bridge type, limited to the calls the library makes.
+ */
+public interface ReadableArray {
+    int size();
+    boolean isNull(int index);
+    boolean getBoolean(int index);
+    double getDouble(int index);
+    int getInt(int index);
+    String getString(int index);
+    ReadableArray getArray(int index);
+    ReadableMap getMap(int index);
+    ReadableType getType(int index);
+}
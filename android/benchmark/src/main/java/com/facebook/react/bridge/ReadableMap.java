@@ -0,0 +1,17 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake of the React Native bridge type, limited to the calls the library makes.
+ */
+public interface ReadableMap {
+    boolean hasKey(String name);
+    boolean isNull(String name);
+    boolean getBoolean(String name);
+    double getDouble(String name);
+    int getInt(String name);
+    String getString(String name);
+    ReadableArray getArray(String name);
+    ReadableMap getMap(String name);
+    ReadableType getType(String name);
+    ReadableMapKeySetIterator keySetIterator();
+}
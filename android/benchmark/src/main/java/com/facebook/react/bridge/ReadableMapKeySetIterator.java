@@ -0,0 +1,9 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake of the React Native bridge type.
+ */
+public interface ReadableMapKeySetIterator {
+    boolean hasNextKey();
+    String nextKey();
+}
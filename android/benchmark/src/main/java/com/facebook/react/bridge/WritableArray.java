@@ -0,0 +1,14 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake of the React Native bridge type, limited to the calls the library makes.
+ */
+public interface WritableArray extends ReadableArray {
+    void pushNull();
+    void pushBoolean(boolean value);
+    void pushDouble(double value);
+    void pushInt(int value);
+    void pushString(String value);
+    void pushArray(WritableArray array);
+    void pushMap(WritableMap map);
+}
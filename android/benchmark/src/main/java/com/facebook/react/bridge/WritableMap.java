@@ -0,0 +1,14 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake of the React Native bridge type, limited to the calls the library makes.
+ */
+public interface WritableMap extends ReadableMap {
+    void putNull(String key);
+    void putBoolean(String key, boolean value);
+    void putDouble(String key, double value);
+    void putInt(String key, int value);
+    void putString(String key, String value);
+    void putArray(String key, WritableArray value);
+    void putMap(String key, WritableMap value);
+}
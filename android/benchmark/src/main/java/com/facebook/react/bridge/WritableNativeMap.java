@@ -0,0 +1,7 @@
+package com.facebook.react.bridge;
+
+/**
+ * Benchmark fake, so that JSONUtil.NATIVE_FACTORY compiles. The benchmarks use JavaOnlyMap.
+ */
+public class WritableNativeMap extends JavaOnlyMap {
+}
@@ -0,0 +1,62 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import com.red5pro.reactnative.util.ConfigurationUtil;
+import com.red5pro.streaming.config.R5Configuration;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The configuration prop, built into an R5Configuration on mount and diffed on each re-render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationBenchmark {
+
+    private JavaOnlyMap mConfiguration;
+    private R5Configuration mCurrent;
+
+    @Setup
+    public void setUp() {
+        mConfiguration = new JavaOnlyMap();
+        mConfiguration.putString("key", "publisher");
+        mConfiguration.putString(ConfigurationUtil.PROP_HOST, "192.168.0.10");
+        mConfiguration.putInt(ConfigurationUtil.PROP_PORT, 8554);
+        mConfiguration.putString(ConfigurationUtil.PROP_CONTEXT_NAME, "live");
+        mConfiguration.putString(ConfigurationUtil.PROP_STREAM_NAME, "stream1");
+        mConfiguration.putDouble(ConfigurationUtil.PROP_BUFFER_TIME, 0.5);
+        mConfiguration.putDouble(ConfigurationUtil.PROP_STREAM_BUFFER_TIME, 2.0);
+        mConfiguration.putString(ConfigurationUtil.PROP_LICENSE_KEY, "ABCD-EFGH-IJKL-MNOP");
+        mConfiguration.putString(ConfigurationUtil.PROP_BUNDLE_ID, "com.red5pro.example");
+        mConfiguration.putString(ConfigurationUtil.PROP_PARAMETERS, "");
+        mCurrent = ConfigurationUtil.createConfigurationFromMap(mConfiguration);
+    }
+
+    @Benchmark
+    public R5Configuration createConfigurationFromMap() {
+        return ConfigurationUtil.createConfigurationFromMap(mConfiguration);
+    }
+
+    @Benchmark
+    public boolean diffUnchangedConfiguration() {
+        return ConfigurationUtil.hasEndpointChanged(mCurrent, mConfiguration)
+                || ConfigurationUtil.hasSessionSettingsChanged(mCurrent, mConfiguration);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import com.red5pro.reactnative.util.JSONUtil;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of the explicit stack of the JSON conversions on deeply nested data, against the recursive
+ * conversions they replaced. The depths stay within what the recursion and the JSONObject parser handle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONNestingBenchmark {
+
+    @Param({ "16", "256" })
+    public int depth;
+
+    private JSONObject mJson;
+    private ReadableMap mMap;
+
+    @Setup
+    public void setUp() throws JSONException {
+        mJson = new JSONObject(Payloads.nested(depth));
+        mMap = JSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public WritableMap convertJsonToMap() throws JSONException {
+        return JSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public WritableMap legacyConvertJsonToMap() throws JSONException {
+        return LegacyJSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public JSONObject convertMapToJson() throws JSONException {
+        return JSONUtil.convertMapToJson(mMap);
+    }
+
+    @Benchmark
+    public JSONObject legacyConvertMapToJson() throws JSONException {
+        return LegacyJSONUtil.convertMapToJson(mMap);
+    }
+
+}
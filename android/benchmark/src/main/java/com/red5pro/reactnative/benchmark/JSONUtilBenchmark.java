@@ -0,0 +1,100 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import com.red5pro.reactnative.util.JSONUtil;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import android.util.JsonReader;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON conversions of the stream manager and shared object payloads, in both directions, against
+ * the recursive conversions they replaced. The text benchmarks include parsing, to compare a JSONObject
+ * round trip with reading the text straight into bridge containers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONUtilBenchmark {
+
+    @Param({ "10", "200" })
+    public int streams;
+
+    private String mText;
+    private JSONObject mJson;
+    private ReadableMap mMap;
+    private ReadableArray mArray;
+
+    @Setup
+    public void setUp() throws JSONException {
+        mText = Payloads.streamList(streams);
+        mJson = new JSONObject(mText);
+        WritableMap map = JSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+        mMap = map;
+        mArray = map.getArray("streams");
+    }
+
+    @Benchmark
+    public WritableMap convertJsonToMap() throws JSONException {
+        return JSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public JSONObject convertMapToJson() throws JSONException {
+        return JSONUtil.convertMapToJson(mMap);
+    }
+
+    @Benchmark
+    public JSONArray convertArrayToJson() throws JSONException {
+        return JSONUtil.convertArrayToJson(mArray);
+    }
+
+    @Benchmark
+    public WritableMap legacyConvertJsonToMap() throws JSONException {
+        return LegacyJSONUtil.convertJsonToMap(mJson, Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public JSONObject legacyConvertMapToJson() throws JSONException {
+        return LegacyJSONUtil.convertMapToJson(mMap);
+    }
+
+    @Benchmark
+    public WritableMap convertTextToMap() throws JSONException {
+        return JSONUtil.convertJsonToMap(new JSONObject(mText), Payloads.FACTORY);
+    }
+
+    @Benchmark
+    public WritableMap convertJsonReaderToMap() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(mText));
+        try {
+            return JSONUtil.convertJsonReaderToMap(reader, Payloads.FACTORY);
+        } finally {
+            reader.close();
+        }
+    }
+
+}
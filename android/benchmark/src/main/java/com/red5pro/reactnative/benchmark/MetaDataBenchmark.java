@@ -0,0 +1,89 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.red5pro.reactnative.util.StreamMetaData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the metadata packets handed to onMetaData. Streams repeat the same packet most of the time,
+ * and change it on rotation or when a custom value is updated.
+ *
+ * The baselines run the split-based parsing onMetaData used before StreamMetaData.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetaDataBenchmark {
+
+    private static final int PACKETS = 64;
+
+    private final StreamMetaData mMetaData = new StreamMetaData();
+    private final String[] mRepeated = new String[PACKETS];
+    private final String[] mChanging = new String[PACKETS];
+    private int mNext;
+
+    @Setup
+    public void setUp() {
+        // Each packet arrives as a new string, so equal packets are distinct instances here too.
+        for (int i = 0; i < PACKETS; i++) {
+            mRepeated[i] = Payloads.metadata(90, 1280, 720, "Live");
+            mChanging[i] = i % 2 == 0
+                    ? Payloads.metadata(0, 1280, 720, "Live")
+                    : Payloads.metadata(90, 1280, 720, "Live now");
+        }
+    }
+
+    @Benchmark
+    public int parseRepeated() {
+        mNext = (mNext + 1) % PACKETS;
+        return mMetaData.parse(mRepeated[mNext]);
+    }
+
+    @Benchmark
+    public int parseChanged() {
+        mNext = (mNext + 1) % PACKETS;
+        return mMetaData.parse(mChanging[mNext]);
+    }
+
+    @Benchmark
+    public int baselineRepeated() {
+        mNext = (mNext + 1) % PACKETS;
+        return splitOrientation(mRepeated[mNext]);
+    }
+
+    @Benchmark
+    public int baselineChanged() {
+        mNext = (mNext + 1) % PACKETS;
+        return splitOrientation(mChanging[mNext]);
+    }
+
+    /*
+     * As onMetaData parsed every packet before, short of the event it then always sent.
+     */
+    private static int splitOrientation(String metadata) {
+        int orientation = -1;
+        String[] props = metadata.split(";");
+        for (String s : props) {
+            String[] kv = s.split("=");
+            if (kv[0].equalsIgnoreCase("orientation")) {
+                orientation = Integer.parseInt(kv[1]);
+            }
+        }
+        return orientation;
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import com.red5pro.reactnative.util.JSONUtil;
+
+/**
+ * Payloads shaped like the ones the library pushes through the bridge.
+ */
+final class Payloads {
+
+    /*
+     * The bridge containers the conversions fill, in place of the native ones.
+     */
+    static final JSONUtil.Factory FACTORY = new JSONUtil.Factory() {
+        @Override
+        public WritableMap createMap() {
+            return new JavaOnlyMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new JavaOnlyArray();
+        }
+    };
+
+    private Payloads() {
+    }
+
+    /**
+     * A stream manager listing of the given number of streams, as JSON text.
+     */
+    static String streamList(int streams) {
+
+        StringBuilder json = new StringBuilder("{\"region\":\"us-east-1\",\"updated\":1546300800000,\"streams\":[");
+        for (int i = 0; i < streams; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"name\":\"stream").append(i)
+                    .append("\",\"scope\":\"live\",\"serverAddress\":\"10.0.").append(i / 250).append('.').append(i % 250)
+                    .append("\",\"port\":8554,\"subscribers\":").append(i * 3)
+                    .append(",\"bitrate\":").append(750 + i)
+                    .append(",\"load\":").append(0.25 + i / 1000.0)
+                    .append(",\"started\":").append(1546300800000L + i * 1000L)
+                    .append(",\"recording\":").append(i % 2 == 0)
+                    .append(",\"origin\":null")
+                    .append(",\"renditions\":[{\"level\":1,\"width\":1280,\"height\":720},")
+                    .append("{\"level\":2,\"width\":640,\"height\":360}]}");
+        }
+        return json.append("]}").toString();
+
+    }
+
+    /**
+     * Shared object data nesting maps in arrays to the given depth, as JSON text.
+     */
+    static String nested(int depth) {
+
+        StringBuilder json = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            json.append("{\"level\":").append(i).append(",\"name\":\"node").append(i).append("\",\"children\":[");
+        }
+        json.append("{\"leaf\":true}");
+        for (int i = 0; i < depth; i++) {
+            json.append("]}");
+        }
+        return json.toString();
+
+    }
+
+    /**
+     * A metadata packet as the SDK delivers it to onMetaData.
+     */
+    static String metadata(int orientation, int width, int height, String title) {
+        return "orientation=" + orientation + ";width=" + width + ";height=" + height
+                + ";title=" + title + ";encoder=Red5Pro Android;profile=baseline";
+    }
+
+}
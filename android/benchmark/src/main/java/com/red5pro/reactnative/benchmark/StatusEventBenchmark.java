@@ -0,0 +1,38 @@
+package com.red5pro.reactnative.benchmark;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.WritableMap;
+
+import com.red5pro.reactnative.util.EventUtil;
+import com.red5pro.streaming.event.R5ConnectionEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The status payload built by onConnectionEvent for every event of a session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusEventBenchmark {
+
+    @Benchmark
+    public WritableMap writeStatusEvent() {
+        return EventUtil.writeStatusEvent(new JavaOnlyMap(), new JavaOnlyMap(),
+                R5ConnectionEvent.NET_STATUS, "stream1");
+    }
+
+}
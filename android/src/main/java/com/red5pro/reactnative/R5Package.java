@@ -6,6 +6,8 @@ import com.facebook.react.ReactPackage;
 import com.facebook.react.bridge.NativeModule;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.uimanager.ViewManager;
+import com.red5pro.reactnative.module.R5StreamModule;
+import com.red5pro.reactnative.view.R5SessionRegistry;
 import com.red5pro.reactnative.view.R5VideoViewManager;
 
 import java.util.Collections;
@@ -13,18 +15,45 @@ import java.util.List;
 
 public class R5Package implements ReactPackage {
 
+    private final R5SessionRegistry mSessionRegistry;
+
+    public R5Package() {
+        this(R5SessionRegistry.UNLIMITED_SESSIONS);
+    }
+
+    /**
+     * @param maxConcurrentSessions The number of R5VideoView instances allowed to be publishing or subscribing
+     *                              at the same time; 0 for no limit.
+     */
+    public R5Package(int maxConcurrentSessions) {
+        mSessionRegistry = new R5SessionRegistry(maxConcurrentSessions);
+    }
+
+    /**
+     * @param maxConcurrentSessions The number of R5VideoView instances allowed to be publishing or subscribing
+     *                              at the same time; 0 for no limit.
+     * @param maxDecoders The number of subscribers allowed to render video at the same time, the others playing
+     *                    audio only; DecoderBudget.AUTO (the default) for the capacity reported by the device,
+     *                    DecoderBudget.UNLIMITED for no limit.
+     */
+    public R5Package(int maxConcurrentSessions, int maxDecoders) {
+        mSessionRegistry = new R5SessionRegistry(maxConcurrentSessions, maxDecoders);
+    }
+
     @Override
     public List<ViewManager> createViewManagers(
             ReactApplicationContext reactContext) {
         return Collections.<ViewManager>singletonList(
-                new R5VideoViewManager()
+                new R5VideoViewManager(mSessionRegistry)
         );
     }
 
     @Override
     public List<NativeModule> createNativeModules(
             ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+        return Collections.<NativeModule>singletonList(
+                new R5StreamModule(reactContext, mSessionRegistry)
+        );
     }
 
 }
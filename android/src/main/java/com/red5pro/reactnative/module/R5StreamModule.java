@@ -0,0 +1,246 @@
+package com.red5pro.reactnative.module;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReactContextBaseJavaModule;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.red5pro.reactnative.view.R5SessionRegistry;
+import com.red5pro.reactnative.view.R5VideoViewLayout;
+import com.red5pro.reactnative.view.SessionState;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads and controls R5VideoView sessions by React tag, without going through view commands.
+ *
+ * Getters are exposed both as blocking synchronous methods, which return on the JS thread without an
+ * asynchronous round trip, and as promise-based methods for when synchronous calls are unavailable
+ * (e.g. when debugging JS remotely). Both return null for a tag with no session, so that a getter behaves
+ * the same either way. Control calls are queued on the media thread of the session.
+ *
+ * Each map returned is a new native map, converted to a JS object on return. Polling every frame is
+ * better served by getLiveStatsArraySync, which returns the live stats as one array of numbers in the
+ * order of the LIVE_STATS_FIELDS constant.
+ */
+public class R5StreamModule extends ReactContextBaseJavaModule {
+
+    private final R5SessionRegistry mSessionRegistry;
+
+    public R5StreamModule(ReactApplicationContext reactContext, R5SessionRegistry registry) {
+        super(reactContext);
+        mSessionRegistry = registry;
+    }
+
+    @Override
+    public String getName() {
+        return "R5StreamModule";
+    }
+
+    @Override
+    public Map<String, Object> getConstants() {
+
+        Map<String, Object> constants = new HashMap<>();
+        constants.put("LIVE_STATS_FIELDS", Arrays.asList(R5VideoViewLayout.getLiveStatsFields()));
+        String[] states = new String[SessionState.values().length];
+        for (SessionState state : SessionState.values()) {
+            states[state.ordinal()] = state.name();
+        }
+        constants.put("STATES", Arrays.asList(states));
+        return constants;
+
+    }
+
+    private R5VideoViewLayout getSession(int tag) {
+        R5VideoViewLayout session = mSessionRegistry.get(tag);
+        if (session == null) {
+            Log.w("R5StreamModule", "No session for tag " + tag + ".");
+        }
+        return session;
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public String getStateSync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getSessionState().name() : null;
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getLiveStatsSync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getLiveStats() : null;
+    }
+
+    /*
+     * The live stats without the keys, and the state as an index into the STATES constant.
+     */
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableArray getLiveStatsArraySync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getLiveStatsArray() : null;
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getStreamStatsSync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getStreamStats() : null;
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getStartupTimingSync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getStartupTiming() : null;
+    }
+
+    @ReactMethod(isBlockingSynchronousMethod = true)
+    public WritableMap getEventCountersSync(int tag) {
+        R5VideoViewLayout session = getSession(tag);
+        return session != null ? session.getEventCounters() : null;
+    }
+
+    @ReactMethod
+    public void getState(int tag, Promise promise) {
+        R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(session.getSessionState().name());
+    }
+
+    @ReactMethod
+    public void getLiveStats(int tag, Promise promise) {
+        R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(session.getLiveStats());
+    }
+
+    @ReactMethod
+    public void getStreamStats(int tag, Promise promise) {
+        R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(session.getStreamStats());
+    }
+
+    @ReactMethod
+    public void getStartupTiming(int tag, Promise promise) {
+        R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(session.getStartupTiming());
+    }
+
+    @ReactMethod
+    public void getEventCounters(int tag, Promise promise) {
+        R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            promise.resolve(null);
+            return;
+        }
+        promise.resolve(session.getEventCounters());
+    }
+
+    @ReactMethod
+    public void muteAudio(int tag) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.muteAudio();
+            }
+        });
+    }
+
+    @ReactMethod
+    public void unmuteAudio(int tag) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.unmuteAudio();
+            }
+        });
+    }
+
+    @ReactMethod
+    public void muteVideo(int tag) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.muteVideo();
+            }
+        });
+    }
+
+    @ReactMethod
+    public void unmuteVideo(int tag) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.unmuteVideo();
+            }
+        });
+    }
+
+    /**
+     * @param volume From 0 to 100.
+     */
+    @ReactMethod
+    public void setPlaybackVolume(int tag, final double volume) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.setPlaybackVolume((float) (volume / 100));
+            }
+        });
+    }
+
+    /**
+     * @param bitrate In kb/s.
+     */
+    @ReactMethod
+    public void setPublishBitrate(int tag, final int bitrate) {
+        final R5VideoViewLayout session = getSession(tag);
+        if (session == null) {
+            return;
+        }
+        session.runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                session.setPublishBitrate(bitrate);
+            }
+        });
+    }
+
+}
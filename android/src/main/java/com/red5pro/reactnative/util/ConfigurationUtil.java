@@ -0,0 +1,118 @@
+package com.red5pro.reactnative.util;
+
+import android.util.Log;
+
+import com.facebook.react.bridge.ReadableMap;
+
+import com.red5pro.streaming.R5StreamProtocol;
+import com.red5pro.streaming.config.R5Configuration;
+
+/**
+ * Builds the R5Configuration of a view from its configuration prop, and diffs a re-sent prop against it.
+ *
+ * Kept apart from the view manager so that these paths depend on nothing but the ReadableMap they read.
+ */
+public class ConfigurationUtil {
+
+    public static final String PROP_HOST = "host";
+    public static final String PROP_PORT = "port";
+    public static final String PROP_CONTEXT_NAME = "contextName";
+    public static final String PROP_STREAM_NAME = "streamName";
+    public static final String PROP_BUFFER_TIME = "bufferTime";
+    public static final String PROP_LICENSE_KEY = "licenseKey";
+    public static final String PROP_BUNDLE_ID = "bundleID";
+    public static final String PROP_PARAMETERS = "parameters";
+    public static final String PROP_STREAM_BUFFER_TIME = "streamBufferTime";
+
+    private static final String DEFAULT_STREAM_NAME = "mystream";
+    private static final String DEFAULT_BUNDLE_ID = "com.red5pro.android";
+    private static final String DEFAULT_LICENSE_KEY = "";
+    private static final float DEFAULT_BUFFER_TIME = 1.0f;
+    private static final float DEFAULT_STREAM_BUFFER_TIME = 2.0f;
+    private static final String DEFAULT_PARAMETERS = "";
+
+    /**
+     * @return null if the host, port or context name is missing.
+     */
+    public static R5Configuration createConfigurationFromMap(ReadableMap configuration) {
+
+        boolean hasHost = configuration.hasKey(PROP_HOST);
+        boolean hasPort = configuration.hasKey(PROP_PORT);
+        boolean hasContextName = configuration.hasKey(PROP_CONTEXT_NAME);
+        boolean hasStreamName = configuration.hasKey(PROP_STREAM_NAME);
+        boolean hasBufferTime = configuration.hasKey(PROP_BUFFER_TIME);
+        boolean hasStreamBufferTime = configuration.hasKey(PROP_STREAM_BUFFER_TIME);
+        boolean hasBundleID = configuration.hasKey(PROP_BUNDLE_ID);
+        boolean hasLicenseKey = configuration.hasKey(PROP_LICENSE_KEY);
+        boolean hasParameters = configuration.hasKey(PROP_PARAMETERS);
+
+        boolean hasRequired = hasHost && hasPort && hasContextName;
+
+        if (!hasRequired) {
+            return null;
+        }
+
+        R5StreamProtocol protocol = R5StreamProtocol.RTSP;
+        String host = configuration.getString(PROP_HOST);
+        int port = configuration.getInt(PROP_PORT);
+        String contextName = configuration.getString(PROP_CONTEXT_NAME);
+        String streamName = hasStreamName ? configuration.getString(PROP_STREAM_NAME) : DEFAULT_STREAM_NAME;
+        String bundleID = hasBundleID ? configuration.getString(PROP_BUNDLE_ID) : DEFAULT_BUNDLE_ID;
+        String licenseKey = hasLicenseKey ? configuration.getString(PROP_LICENSE_KEY) : DEFAULT_LICENSE_KEY;
+        float bufferTime = hasBufferTime ? (float) configuration.getDouble(PROP_BUFFER_TIME) : DEFAULT_BUFFER_TIME;
+        float streamBufferTime = hasStreamBufferTime ? (float) configuration.getDouble(PROP_STREAM_BUFFER_TIME) : DEFAULT_STREAM_BUFFER_TIME;
+        String parameters = hasParameters ? configuration.getString(PROP_PARAMETERS) : DEFAULT_PARAMETERS;
+
+        Log.d("R5VideoViewManager", "Parameters: " + parameters);
+
+        R5Configuration config = new R5Configuration(protocol, host, port, contextName, bufferTime, parameters);
+
+        config.setStreamBufferTime(streamBufferTime);
+        config.setBundleID(bundleID);
+        config.setStreamName(streamName);
+        config.setLicenseKey(licenseKey);
+
+        return config;
+
+    }
+
+    /*
+     * Re-renders re-send the configuration prop. Diff it against the current configuration so that only
+     * a change of endpoint rebuilds the R5Connection and R5Stream.
+     */
+    public static boolean hasEndpointChanged(R5Configuration current, ReadableMap configuration) {
+
+        if (!configuration.hasKey(PROP_HOST) || !configuration.hasKey(PROP_PORT) || !configuration.hasKey(PROP_CONTEXT_NAME)) {
+            return true;
+        }
+        return current.getPort() != configuration.getInt(PROP_PORT)
+                || !equalStrings(current.getHost(), configuration.getString(PROP_HOST))
+                || !equalStrings(current.getContextName(), configuration.getString(PROP_CONTEXT_NAME));
+
+    }
+
+    public static boolean hasSessionSettingsChanged(R5Configuration current, ReadableMap configuration) {
+
+        float bufferTime = configuration.hasKey(PROP_BUFFER_TIME)
+                ? (float) configuration.getDouble(PROP_BUFFER_TIME) : DEFAULT_BUFFER_TIME;
+        float streamBufferTime = configuration.hasKey(PROP_STREAM_BUFFER_TIME)
+                ? (float) configuration.getDouble(PROP_STREAM_BUFFER_TIME) : DEFAULT_STREAM_BUFFER_TIME;
+
+        return current.getBufferTime() != bufferTime
+                || current.getStreamBufferTime() != streamBufferTime
+                || !equalStrings(current.getStreamName(), getString(configuration, PROP_STREAM_NAME, DEFAULT_STREAM_NAME))
+                || !equalStrings(current.getBundleID(), getString(configuration, PROP_BUNDLE_ID, DEFAULT_BUNDLE_ID))
+                || !equalStrings(current.getLicenseKey(), getString(configuration, PROP_LICENSE_KEY, DEFAULT_LICENSE_KEY))
+                || !equalStrings(current.getParameters(), getString(configuration, PROP_PARAMETERS, DEFAULT_PARAMETERS));
+
+    }
+
+    private static String getString(ReadableMap map, String key, String defaultValue) {
+        return map.hasKey(key) ? map.getString(key) : defaultValue;
+    }
+
+    private static boolean equalStrings(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.red5pro.reactnative.util;
+
+import com.facebook.react.bridge.WritableMap;
+
+import com.red5pro.streaming.event.R5ConnectionEvent;
+
+/**
+ * Builds event payloads into the maps it is given, so that they can be filled without a bridge.
+ */
+public class EventUtil {
+
+    /**
+     * Fills the payload of the publisherStatus and subscriberStatus events.
+     */
+    public static WritableMap writeStatusEvent(WritableMap map, WritableMap statusMap,
+                                               R5ConnectionEvent event, String streamName) {
+
+        statusMap.putInt("code", event.value());
+        statusMap.putString("message", event.message);
+        statusMap.putString("name", event.name());
+        statusMap.putString("streamName", streamName);
+        map.putMap("status", statusMap);
+        return map;
+
+    }
+
+}
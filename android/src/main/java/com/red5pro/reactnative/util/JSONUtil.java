@@ -1,5 +1,8 @@
 package com.red5pro.reactnative.util;
 
+import android.util.JsonReader;
+import android.util.JsonToken;
+
 import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableMapKeySetIterator;
@@ -12,117 +15,403 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Iterator;
 
 /**
  * Created by kylekellogg on 7/19/17.
  *
  * Found at: https://gist.github.com/viperwarp/2beb6bbefcc268dee7ad
+ *
+ * The conversions walk nested values with an explicit stack rather than recursion, so that the depth
+ * of a payload is bounded by the heap and not by the thread stack. Bridge containers are only attached
+ * to their parent once complete, as a WritableNativeMap/Array is consumed when it is put into another.
  */
 
 public class JSONUtil {
+
+    /**
+     * Creates the bridge containers filled by the conversions, so that they can run against
+     * plain JVM implementations outside of a React Native host.
+     */
+    public interface Factory {
+        WritableMap createMap();
+        WritableArray createArray();
+    }
+
+    public static final Factory NATIVE_FACTORY = new Factory() {
+        @Override
+        public WritableMap createMap() {
+            return new WritableNativeMap();
+        }
+
+        @Override
+        public WritableArray createArray() {
+            return new WritableNativeArray();
+        }
+    };
+
+    /*
+     * A container being filled: its source, its position in that source and where it goes once complete.
+     */
+    private static class Frame {
+        final Object source;
+        final Object target;
+        final String key;
+        Iterator<String> keys;
+        ReadableMapKeySetIterator readableKeys;
+        int index;
+
+        Frame(Object source, Object target, String key) {
+            this.source = source;
+            this.target = target;
+            this.key = key;
+        }
+    }
+
     public static WritableMap convertJsonToMap(JSONObject jsonObject) throws JSONException {
-        WritableMap map = new WritableNativeMap();
-
-        Iterator<String> iterator = jsonObject.keys();
-        while (iterator.hasNext()) {
-            String key = iterator.next();
-            Object value = jsonObject.get(key);
-            if (value instanceof JSONObject) {
-                map.putMap(key, convertJsonToMap((JSONObject) value));
-            } else if (value instanceof  JSONArray) {
-                map.putArray(key, convertJsonToArray((JSONArray) value));
-            } else if (value instanceof  Boolean) {
-                map.putBoolean(key, (Boolean) value);
-            } else if (value instanceof  Integer) {
-                map.putInt(key, (Integer) value);
-            } else if (value instanceof  Double) {
-                map.putDouble(key, (Double) value);
-            } else if (value instanceof String)  {
-                map.putString(key, (String) value);
+        return convertJsonToMap(jsonObject, NATIVE_FACTORY);
+    }
+
+    public static WritableArray convertJsonToArray(JSONArray jsonArray) throws JSONException {
+        return convertJsonToArray(jsonArray, NATIVE_FACTORY);
+    }
+
+    public static WritableMap convertJsonToMap(JSONObject jsonObject, Factory factory) throws JSONException {
+        return (WritableMap) convertJson(jsonObject, factory);
+    }
+
+    public static WritableArray convertJsonToArray(JSONArray jsonArray, Factory factory) throws JSONException {
+        return (WritableArray) convertJson(jsonArray, factory);
+    }
+
+    private static Object convertJson(Object root, Factory factory) throws JSONException {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        Frame rootFrame = createJsonFrame(root, null, factory);
+        stack.push(rootFrame);
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            String key;
+            Object value;
+            if (frame.source instanceof JSONObject) {
+                if (!frame.keys.hasNext()) {
+                    complete(stack);
+                    continue;
+                }
+                key = frame.keys.next();
+                value = ((JSONObject) frame.source).get(key);
+            } else {
+                JSONArray source = (JSONArray) frame.source;
+                if (frame.index >= source.length()) {
+                    complete(stack);
+                    continue;
+                }
+                key = null;
+                value = source.get(frame.index++);
+            }
+
+            if (value instanceof JSONObject || value instanceof JSONArray) {
+                stack.push(createJsonFrame(value, key, factory));
+            } else if (frame.target instanceof WritableMap) {
+                putValue((WritableMap) frame.target, key, value);
             } else {
-                map.putString(key, value.toString());
+                pushValue((WritableArray) frame.target, value);
             }
         }
-        return map;
+        return rootFrame.target;
     }
 
-    public static WritableArray convertJsonToArray(JSONArray jsonArray) throws JSONException {
-        WritableArray array = new WritableNativeArray();
-
-        for (int i = 0; i < jsonArray.length(); i++) {
-            Object value = jsonArray.get(i);
-            if (value instanceof JSONObject) {
-                array.pushMap(convertJsonToMap((JSONObject) value));
-            } else if (value instanceof  JSONArray) {
-                array.pushArray(convertJsonToArray((JSONArray) value));
-            } else if (value instanceof  Boolean) {
-                array.pushBoolean((Boolean) value);
-            } else if (value instanceof  Integer) {
-                array.pushInt((Integer) value);
-            } else if (value instanceof  Double) {
-                array.pushDouble((Double) value);
-            } else if (value instanceof String)  {
-                array.pushString((String) value);
+    private static Frame createJsonFrame(Object source, String key, Factory factory) {
+        if (source instanceof JSONObject) {
+            Frame frame = new Frame(source, factory.createMap(), key);
+            frame.keys = ((JSONObject) source).keys();
+            return frame;
+        }
+        return new Frame(source, factory.createArray(), key);
+    }
+
+    /*
+     * Pops the completed container and attaches it to the one below, if any.
+     */
+    private static void complete(ArrayDeque<Frame> stack) {
+        Frame done = stack.pop();
+        Frame parent = stack.peek();
+        if (parent == null) {
+            return;
+        }
+        if (parent.target instanceof WritableMap) {
+            WritableMap map = (WritableMap) parent.target;
+            if (done.target instanceof WritableMap) {
+                map.putMap(done.key, (WritableMap) done.target);
+            } else {
+                map.putArray(done.key, (WritableArray) done.target);
+            }
+        } else if (parent.target instanceof WritableArray) {
+            WritableArray array = (WritableArray) parent.target;
+            if (done.target instanceof WritableMap) {
+                array.pushMap((WritableMap) done.target);
             } else {
-                array.pushString(value.toString());
+                array.pushArray((WritableArray) done.target);
             }
         }
-        return array;
     }
 
-    public static JSONObject convertMapToJson(ReadableMap readableMap) throws JSONException {
-        JSONObject object = new JSONObject();
-        ReadableMapKeySetIterator iterator = readableMap.keySetIterator();
-        while (iterator.hasNextKey()) {
-            String key = iterator.nextKey();
-            switch (readableMap.getType(key)) {
-                case Null:
-                    object.put(key, JSONObject.NULL);
+    private static void putValue(WritableMap map, String key, Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            map.putNull(key);
+        } else if (value instanceof String) {
+            map.putString(key, (String) value);
+        } else if (value instanceof Integer) {
+            map.putInt(key, (Integer) value);
+        } else if (value instanceof Boolean) {
+            map.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Number) {
+            // Long, Float and Double; JS numbers are doubles.
+            map.putDouble(key, ((Number) value).doubleValue());
+        } else {
+            map.putString(key, value.toString());
+        }
+    }
+
+    private static void pushValue(WritableArray array, Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            array.pushNull();
+        } else if (value instanceof String) {
+            array.pushString((String) value);
+        } else if (value instanceof Integer) {
+            array.pushInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            array.pushBoolean((Boolean) value);
+        } else if (value instanceof Number) {
+            array.pushDouble(((Number) value).doubleValue());
+        } else {
+            array.pushString(value.toString());
+        }
+    }
+
+    /**
+     * Reads the next value of the reader, which must be an object, straight into a bridge map
+     * without materializing a JSONObject.
+     */
+    public static WritableMap convertJsonReaderToMap(JsonReader reader) throws IOException {
+        return convertJsonReaderToMap(reader, NATIVE_FACTORY);
+    }
+
+    public static WritableArray convertJsonReaderToArray(JsonReader reader) throws IOException {
+        return convertJsonReaderToArray(reader, NATIVE_FACTORY);
+    }
+
+    public static WritableMap convertJsonReaderToMap(JsonReader reader, Factory factory) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Expected an object but was " + reader.peek());
+        }
+        return (WritableMap) convertJsonReader(reader, factory);
+    }
+
+    public static WritableArray convertJsonReaderToArray(JsonReader reader, Factory factory) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            throw new IOException("Expected an array but was " + reader.peek());
+        }
+        return (WritableArray) convertJsonReader(reader, factory);
+    }
+
+    private static Object convertJsonReader(JsonReader reader, Factory factory) throws IOException {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        Object root = null;
+        String key = null;
+
+        do {
+            Frame frame = stack.peek();
+            WritableMap map = frame != null && frame.target instanceof WritableMap ? (WritableMap) frame.target : null;
+            WritableArray array = frame != null && frame.target instanceof WritableArray ? (WritableArray) frame.target : null;
+
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    stack.push(new Frame(null, factory.createMap(), key));
+                    break;
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    stack.push(new Frame(null, factory.createArray(), key));
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    root = stack.peek().target;
+                    complete(stack);
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    root = stack.peek().target;
+                    complete(stack);
                     break;
-                case Boolean:
-                    object.put(key, readableMap.getBoolean(key));
+                case NAME:
+                    key = reader.nextName();
                     break;
-                case Number:
-                    object.put(key, readableMap.getDouble(key));
+                case STRING:
+                    String string = reader.nextString();
+                    if (map != null) {
+                        map.putString(key, string);
+                    } else {
+                        array.pushString(string);
+                    }
                     break;
-                case String:
-                    object.put(key, readableMap.getString(key));
+                case NUMBER:
+                    readNumber(reader, map, array, key);
                     break;
-                case Map:
-                    object.put(key, convertMapToJson(readableMap.getMap(key)));
+                case BOOLEAN:
+                    boolean bool = reader.nextBoolean();
+                    if (map != null) {
+                        map.putBoolean(key, bool);
+                    } else {
+                        array.pushBoolean(bool);
+                    }
                     break;
-                case Array:
-                    object.put(key, convertArrayToJson(readableMap.getArray(key)));
+                case NULL:
+                    reader.nextNull();
+                    if (map != null) {
+                        map.putNull(key);
+                    } else {
+                        array.pushNull();
+                    }
                     break;
+                default:
+                    throw new IOException("Unexpected " + reader.peek());
+            }
+        } while (!stack.isEmpty());
+
+        return root;
+    }
+
+    /*
+     * Integral literals that fit an int stay ints, everything else becomes a double.
+     */
+    private static void readNumber(JsonReader reader, WritableMap map, WritableArray array, String key) throws IOException {
+        String literal = reader.nextString();
+        boolean integral = true;
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+                break;
+            }
+        }
+
+        if (integral) {
+            try {
+                long value = Long.parseLong(literal);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    if (map != null) {
+                        map.putInt(key, (int) value);
+                    } else {
+                        array.pushInt((int) value);
+                    }
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                // Beyond a long, fall through to double.
             }
         }
-        return object;
+
+        double value = Double.parseDouble(literal);
+        if (map != null) {
+            map.putDouble(key, value);
+        } else {
+            array.pushDouble(value);
+        }
+    }
+
+    public static JSONObject convertMapToJson(ReadableMap readableMap) throws JSONException {
+        return (JSONObject) convertReadable(readableMap);
     }
 
     public static JSONArray convertArrayToJson(ReadableArray readableArray) throws JSONException {
-        JSONArray array = new JSONArray();
-        for (int i = 0; i < readableArray.size(); i++) {
-            switch (readableArray.getType(i)) {
-                case Null:
-                    break;
-                case Boolean:
-                    array.put(readableArray.getBoolean(i));
-                    break;
-                case Number:
-                    array.put(readableArray.getDouble(i));
-                    break;
-                case String:
-                    array.put(readableArray.getString(i));
-                    break;
-                case Map:
-                    array.put(convertMapToJson(readableArray.getMap(i)));
-                    break;
-                case Array:
-                    array.put(convertArrayToJson(readableArray.getArray(i)));
-                    break;
+        return (JSONArray) convertReadable(readableArray);
+    }
+
+    private static Object convertReadable(Object root) throws JSONException {
+        ArrayDeque<Frame> stack = new ArrayDeque<>();
+        Frame rootFrame = createReadableFrame(root);
+        stack.push(rootFrame);
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.source instanceof ReadableMap) {
+                if (!frame.readableKeys.hasNextKey()) {
+                    stack.pop();
+                    continue;
+                }
+                ReadableMap readableMap = (ReadableMap) frame.source;
+                JSONObject object = (JSONObject) frame.target;
+                String key = frame.readableKeys.nextKey();
+                switch (readableMap.getType(key)) {
+                    case Null:
+                        object.put(key, JSONObject.NULL);
+                        break;
+                    case Boolean:
+                        object.put(key, readableMap.getBoolean(key));
+                        break;
+                    case Number:
+                        object.put(key, readableMap.getDouble(key));
+                        break;
+                    case String:
+                        object.put(key, readableMap.getString(key));
+                        break;
+                    case Map:
+                        // JSON containers are held by reference, so children can be attached before they are filled.
+                        Frame map = createReadableFrame(readableMap.getMap(key));
+                        object.put(key, map.target);
+                        stack.push(map);
+                        break;
+                    case Array:
+                        Frame array = createReadableFrame(readableMap.getArray(key));
+                        object.put(key, array.target);
+                        stack.push(array);
+                        break;
+                }
+            } else {
+                ReadableArray readableArray = (ReadableArray) frame.source;
+                if (frame.index >= readableArray.size()) {
+                    stack.pop();
+                    continue;
+                }
+                JSONArray array = (JSONArray) frame.target;
+                int i = frame.index++;
+                switch (readableArray.getType(i)) {
+                    case Null:
+                        break;
+                    case Boolean:
+                        array.put(readableArray.getBoolean(i));
+                        break;
+                    case Number:
+                        array.put(readableArray.getDouble(i));
+                        break;
+                    case String:
+                        array.put(readableArray.getString(i));
+                        break;
+                    case Map:
+                        Frame map = createReadableFrame(readableArray.getMap(i));
+                        array.put(map.target);
+                        stack.push(map);
+                        break;
+                    case Array:
+                        Frame child = createReadableFrame(readableArray.getArray(i));
+                        array.put(child.target);
+                        stack.push(child);
+                        break;
+                }
             }
         }
-        return array;
+        return rootFrame.target;
+    }
+
+    private static Frame createReadableFrame(Object source) {
+        if (source instanceof ReadableMap) {
+            Frame frame = new Frame(source, new JSONObject(), null);
+            frame.readableKeys = ((ReadableMap) source).keySetIterator();
+            return frame;
+        }
+        return new Frame(source, new JSONArray(), null);
     }
 }
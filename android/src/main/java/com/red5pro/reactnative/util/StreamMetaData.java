@@ -0,0 +1,223 @@
+package com.red5pro.reactnative.util;
+
+import java.util.ArrayList;
+
+/**
+ * Reusable, typed view of the "key=value;key=value" metadata string sent with a stream.
+ *
+ * parse() scans the string in place and compares each value against the one held from the previous
+ * packet. Nothing is allocated for a packet equal to the last one, or for known numeric fields; a
+ * String is only created for a custom value that has actually changed.
+ */
+public class StreamMetaData {
+
+    public static final int CHANGED_ORIENTATION = 1;
+    public static final int CHANGED_WIDTH = 1 << 1;
+    public static final int CHANGED_HEIGHT = 1 << 2;
+    public static final int CHANGED_CUSTOM = 1 << 3;
+
+    private static final String KEY_ORIENTATION = "orientation";
+    private static final String KEY_WIDTH = "width";
+    private static final String KEY_HEIGHT = "height";
+
+    private String mRaw;
+    private int mOrientation;
+    private int mWidth;
+    private int mHeight;
+    private int mPresent;
+
+    private final ArrayList<String> mKeys = new ArrayList<>();
+    private final ArrayList<String> mValues = new ArrayList<>();
+    private final ArrayList<Boolean> mChanged = new ArrayList<>();
+    private final ArrayList<Boolean> mSeen = new ArrayList<>();
+    private final ArrayList<String> mRemoved = new ArrayList<>();
+
+    /**
+     * @return a mask of the CHANGED_ flags for the fields that differ from the previous packet, 0 if none.
+     */
+    public int parse(String metadata) {
+
+        if (metadata == null || metadata.equals(mRaw)) {
+            return 0;
+        }
+        mRaw = metadata;
+
+        int count = mKeys.size();
+        for (int i = 0; i < count; i++) {
+            mChanged.set(i, Boolean.FALSE);
+            mSeen.set(i, Boolean.FALSE);
+        }
+        mRemoved.clear();
+
+        int changes = 0;
+        int length = metadata.length();
+        int start = 0;
+        while (start < length) {
+            int end = metadata.indexOf(';', start);
+            if (end < 0) {
+                end = length;
+            }
+            int separator = metadata.indexOf('=', start);
+            if (separator > start && separator < end) {
+                changes |= parseProperty(metadata, start, separator, separator + 1, end);
+            }
+            start = end + 1;
+        }
+
+        for (int i = mKeys.size() - 1; i >= 0; i--) {
+            if (!mSeen.get(i)) {
+                mRemoved.add(mKeys.get(i));
+                mKeys.remove(i);
+                mValues.remove(i);
+                mChanged.remove(i);
+                mSeen.remove(i);
+                changes |= CHANGED_CUSTOM;
+            }
+        }
+        return changes;
+
+    }
+
+    private int parseProperty(String s, int keyStart, int keyEnd, int valueStart, int valueEnd) {
+
+        int keyLength = keyEnd - keyStart;
+        if (isKey(s, keyStart, keyLength, KEY_ORIENTATION)) {
+            int value = parseInt(s, valueStart, valueEnd, mOrientation);
+            if (value != mOrientation || (mPresent & CHANGED_ORIENTATION) == 0) {
+                mOrientation = value;
+                mPresent |= CHANGED_ORIENTATION;
+                return CHANGED_ORIENTATION;
+            }
+            return 0;
+        }
+        if (isKey(s, keyStart, keyLength, KEY_WIDTH)) {
+            int value = parseInt(s, valueStart, valueEnd, mWidth);
+            if (value != mWidth || (mPresent & CHANGED_WIDTH) == 0) {
+                mWidth = value;
+                mPresent |= CHANGED_WIDTH;
+                return CHANGED_WIDTH;
+            }
+            return 0;
+        }
+        if (isKey(s, keyStart, keyLength, KEY_HEIGHT)) {
+            int value = parseInt(s, valueStart, valueEnd, mHeight);
+            if (value != mHeight || (mPresent & CHANGED_HEIGHT) == 0) {
+                mHeight = value;
+                mPresent |= CHANGED_HEIGHT;
+                return CHANGED_HEIGHT;
+            }
+            return 0;
+        }
+
+        int valueLength = valueEnd - valueStart;
+        for (int i = 0; i < mKeys.size(); i++) {
+            String key = mKeys.get(i);
+            if (key.length() == keyLength && s.regionMatches(keyStart, key, 0, keyLength)) {
+                mSeen.set(i, Boolean.TRUE);
+                String current = mValues.get(i);
+                if (current.length() == valueLength && s.regionMatches(valueStart, current, 0, valueLength)) {
+                    return 0;
+                }
+                mValues.set(i, s.substring(valueStart, valueEnd));
+                mChanged.set(i, Boolean.TRUE);
+                return CHANGED_CUSTOM;
+            }
+        }
+
+        mKeys.add(s.substring(keyStart, keyEnd));
+        mValues.add(s.substring(valueStart, valueEnd));
+        mChanged.add(Boolean.TRUE);
+        mSeen.add(Boolean.TRUE);
+        return CHANGED_CUSTOM;
+
+    }
+
+    private static boolean isKey(String s, int start, int length, String key) {
+        return key.length() == length && s.regionMatches(true, start, key, 0, length);
+    }
+
+    /*
+     * Parses a decimal integer in place, returning the fallback if the value is not one.
+     */
+    private static int parseInt(String s, int start, int end, int fallback) {
+
+        if (start >= end) {
+            return fallback;
+        }
+        boolean negative = s.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i >= end) {
+            return fallback;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return fallback;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+
+    }
+
+    public String getRaw() {
+        return mRaw;
+    }
+
+    /**
+     * @return a mask of the CHANGED_ flags for the known fields received so far.
+     */
+    public int getPresentFields() {
+        return mPresent;
+    }
+
+    public int getOrientation() {
+        return mOrientation;
+    }
+
+    public int getWidth() {
+        return mWidth;
+    }
+
+    public int getHeight() {
+        return mHeight;
+    }
+
+    public int getCustomCount() {
+        return mKeys.size();
+    }
+
+    public String getCustomKey(int index) {
+        return mKeys.get(index);
+    }
+
+    public String getCustomValue(int index) {
+        return mValues.get(index);
+    }
+
+    public boolean isCustomChanged(int index) {
+        return mChanged.get(index);
+    }
+
+    /**
+     * @return the custom keys present in the previous packet but missing from the last one parsed.
+     */
+    public ArrayList<String> getRemovedKeys() {
+        return mRemoved;
+    }
+
+    public void reset() {
+        mRaw = null;
+        mOrientation = 0;
+        mWidth = 0;
+        mHeight = 0;
+        mPresent = 0;
+        mKeys.clear();
+        mValues.clear();
+        mChanged.clear();
+        mSeen.clear();
+        mRemoved.clear();
+    }
+
+}
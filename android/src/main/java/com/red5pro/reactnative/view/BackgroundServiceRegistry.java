@@ -0,0 +1,182 @@
+package com.red5pro.reactnative.view;
+
+import android.app.Service;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Process-local record of the background streaming services this library has started and bound.
+ *
+ * Sessions acquire a service instead of starting and binding it themselves: the first acquisition starts
+ * and binds it, later ones reuse the same binding, and the last release unbinds and stops it. Whether a
+ * service is running is known here, without querying the ActivityManager.
+ */
+public class BackgroundServiceRegistry {
+
+    public interface Client {
+        /**
+         * Called on the main thread once the service is bound, or right away if it already is.
+         */
+        void onServiceAvailable(IBinder binder);
+
+        void onServiceLost();
+    }
+
+    private static class Entry implements ServiceConnection {
+        final Class<? extends Service> serviceClass;
+        // Each client with the token of its current acquisition.
+        final LinkedHashMap<Client, Object> clients = new LinkedHashMap<>();
+        boolean started;
+        boolean bound;
+        IBinder binder;
+
+        Entry(Class<? extends Service> serviceClass) {
+            this.serviceClass = serviceClass;
+        }
+
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder service) {
+            Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:onServiceConnected(" + serviceClass.getSimpleName() + ")");
+            Client[] clients;
+            synchronized (BackgroundServiceRegistry.class) {
+                if (!bound) {
+                    return;
+                }
+                binder = service;
+                clients = this.clients.keySet().toArray(new Client[this.clients.size()]);
+            }
+            for (Client client : clients) {
+                client.onServiceAvailable(service);
+            }
+        }
+
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:onServiceDisconnected(" + serviceClass.getSimpleName() + ")");
+            Client[] clients;
+            synchronized (BackgroundServiceRegistry.class) {
+                // The binding stays registered; onServiceConnected follows if the service is restarted.
+                binder = null;
+                clients = this.clients.keySet().toArray(new Client[this.clients.size()]);
+            }
+            for (Client client : clients) {
+                client.onServiceLost();
+            }
+        }
+    }
+
+    private static final HashMap<Class<? extends Service>, Entry> sEntries = new HashMap<>();
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    private BackgroundServiceRegistry() {
+    }
+
+    /**
+     * Acquiring again with a client that holds the service delivers the binder to it again. A delivery
+     * still queued when its client releases the service is dropped, even if the client acquires it again.
+     */
+    public static void acquire(Context context, Class<? extends Service> serviceClass, final Client client) {
+
+        final Entry entry;
+        final IBinder binder;
+        final Object token;
+        synchronized (BackgroundServiceRegistry.class) {
+            entry = getEntry(serviceClass);
+            Object held = entry.clients.get(client);
+            if (held == null) {
+                held = new Object();
+                entry.clients.put(client, held);
+            }
+            token = held;
+
+            // The application context keeps the service and binding independent of any one activity.
+            Context appContext = context.getApplicationContext();
+            Intent intent = new Intent(appContext, serviceClass);
+            if (!entry.started) {
+                Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:start(" + serviceClass.getSimpleName() + ")");
+                appContext.startService(intent);
+                entry.started = true;
+            }
+            if (!entry.bound) {
+                Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:bind(" + serviceClass.getSimpleName() + ")");
+                entry.bound = appContext.bindService(intent, entry, Context.BIND_IMPORTANT);
+                if (!entry.bound) {
+                    Log.w("R5VideoViewLayout", "BackgroundServiceRegistry:bind:error - " + serviceClass.getSimpleName());
+                }
+            }
+            binder = entry.binder;
+        }
+
+        if (binder != null) {
+            sMainHandler.post(new Runnable() {
+                @Override
+                public void run() {
+                    synchronized (BackgroundServiceRegistry.class) {
+                        if (entry.binder != binder || entry.clients.get(client) != token) {
+                            return;
+                        }
+                    }
+                    client.onServiceAvailable(binder);
+                }
+            });
+        }
+
+    }
+
+    public static void release(Context context, Class<? extends Service> serviceClass, Client client) {
+
+        synchronized (BackgroundServiceRegistry.class) {
+            Entry entry = sEntries.get(serviceClass);
+            if (entry == null || entry.clients.remove(client) == null || !entry.clients.isEmpty()) {
+                return;
+            }
+
+            Context appContext = context.getApplicationContext();
+            if (entry.bound) {
+                Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:unbind(" + serviceClass.getSimpleName() + ")");
+                appContext.unbindService(entry);
+                entry.bound = false;
+            }
+            if (entry.started) {
+                Log.d("R5VideoViewLayout", "BackgroundServiceRegistry:stop(" + serviceClass.getSimpleName() + ")");
+                appContext.stopService(new Intent(appContext, serviceClass));
+                entry.started = false;
+            }
+            entry.binder = null;
+        }
+
+    }
+
+    public static boolean isStarted(Class<? extends Service> serviceClass) {
+        synchronized (BackgroundServiceRegistry.class) {
+            Entry entry = sEntries.get(serviceClass);
+            return entry != null && entry.started;
+        }
+    }
+
+    public static int getClientCount(Class<? extends Service> serviceClass) {
+        synchronized (BackgroundServiceRegistry.class) {
+            Entry entry = sEntries.get(serviceClass);
+            return entry != null ? entry.clients.size() : 0;
+        }
+    }
+
+    private static Entry getEntry(Class<? extends Service> serviceClass) {
+        Entry entry = sEntries.get(serviceClass);
+        if (entry == null) {
+            entry = new Entry(serviceClass);
+            sEntries.put(serviceClass, entry);
+        }
+        return entry;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.red5pro.reactnative.view;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.ImageFormat;
+import android.hardware.camera2.CameraAccessException;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraDevice;
+import android.hardware.camera2.CameraManager;
+import android.hardware.camera2.params.StreamConfigurationMap;
+import android.os.Build;
+import android.os.Handler;
+import android.util.Log;
+import android.util.Size;
+
+/**
+ * Opens a camera2 device by facing, for use with R5Camera2.
+ *
+ * R5Camera2 captures into an ImageReader at the size it is given and reads each frame into a buffer for
+ * the encoder, so frames are still copied once per frame within the SDK; what camera2 saves is the legacy
+ * preview callback path. The capture size is chosen here among the sizes the device lists for that
+ * reader, so that the requested size and frame rate are not silently degraded by the device.
+ */
+@TargetApi(Build.VERSION_CODES.LOLLIPOP)
+public class Camera2Opener {
+
+    public interface Callback {
+        void onCameraOpened(CameraDevice device, CameraCharacteristics characteristics, int sensorOrientation);
+        void onCameraError(String message);
+    }
+
+    public static boolean isSupported() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP;
+    }
+
+    public static void open(Context context, boolean backfacing, Handler handler, final Callback callback) {
+
+        int facing = backfacing
+                ? CameraCharacteristics.LENS_FACING_BACK
+                : CameraCharacteristics.LENS_FACING_FRONT;
+
+        CameraManager manager = (CameraManager) context.getSystemService(Context.CAMERA_SERVICE);
+        try {
+            for (String id : manager.getCameraIdList()) {
+                final CameraCharacteristics characteristics = manager.getCameraCharacteristics(id);
+                Integer lensFacing = characteristics.get(CameraCharacteristics.LENS_FACING);
+                if (lensFacing == null || lensFacing != facing) {
+                    continue;
+                }
+
+                Integer sensorOrientation = characteristics.get(CameraCharacteristics.SENSOR_ORIENTATION);
+                final int orientation = sensorOrientation != null ? sensorOrientation : 0;
+                manager.openCamera(id, new CameraDevice.StateCallback() {
+                    // The callback is given one outcome per open; later losses of the device are only logged.
+                    private boolean reported;
+
+                    @Override
+                    public void onOpened(CameraDevice camera) {
+                        reported = true;
+                        callback.onCameraOpened(camera, characteristics, orientation);
+                    }
+
+                    @Override
+                    public void onDisconnected(CameraDevice camera) {
+                        Log.w("R5VideoViewLayout", "Camera2:onDisconnected(" + camera.getId() + ")");
+                        camera.close();
+                        if (!reported) {
+                            reported = true;
+                            callback.onCameraError("Camera2 device disconnected.");
+                        }
+                    }
+
+                    @Override
+                    public void onError(CameraDevice camera, int error) {
+                        camera.close();
+                        if (!reported) {
+                            reported = true;
+                            callback.onCameraError("Camera2 device error: " + error);
+                        }
+                        else {
+                            Log.w("R5VideoViewLayout", "Camera2:onError(" + camera.getId() + ") " + error);
+                        }
+                    }
+                }, handler);
+                return;
+            }
+        } catch (CameraAccessException | SecurityException e) {
+            callback.onCameraError(e.getMessage());
+            return;
+        }
+
+        callback.onCameraError("No camera2 device found with requested facing.");
+
+    }
+
+    /**
+     * @return the largest size the device can capture to the SDK's reader within the requested size, at the
+     * requested frame rate if any size allows it, or the requested size if the device lists none within it.
+     */
+    public static Size getCaptureSize(CameraCharacteristics characteristics, int width, int height, int framerate) {
+
+        StreamConfigurationMap map = characteristics.get(CameraCharacteristics.SCALER_STREAM_CONFIGURATION_MAP);
+        Size[] sizes = map != null ? map.getOutputSizes(ImageFormat.YUV_420_888) : null;
+        if (sizes == null) {
+            return new Size(width, height);
+        }
+
+        long frameDuration = framerate > 0 ? 1000000000L / framerate : Long.MAX_VALUE;
+        Size best = null;
+        Size bestAtRate = null;
+        for (Size size : sizes) {
+            if (size.getWidth() > width || size.getHeight() > height) {
+                continue;
+            }
+            if (best == null || area(size) > area(best)) {
+                best = size;
+            }
+            if (map.getOutputMinFrameDuration(ImageFormat.YUV_420_888, size) <= frameDuration
+                    && (bestAtRate == null || area(size) > area(bestAtRate))) {
+                bestAtRate = size;
+            }
+        }
+        if (bestAtRate != null) {
+            return bestAtRate;
+        }
+        return best != null ? best : new Size(width, height);
+
+    }
+
+    private static long area(Size size) {
+        return (long)size.getWidth() * size.getHeight();
+    }
+
+}
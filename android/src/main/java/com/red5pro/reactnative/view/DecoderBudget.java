@@ -0,0 +1,234 @@
+package com.red5pro.reactnative.view;
+
+import android.annotation.TargetApi;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.os.Build;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+/**
+ * Shares the hardware video decoders of the device between the subscribers of the process.
+ *
+ * Subscribers hold a decode slot while they render video. When more subscribers want video than there are
+ * decoders, slots go to the highest priority ones and the others are demoted until a slot frees up or their
+ * priority rises. A subscriber holding a slot keeps it over one of equal priority.
+ */
+public class DecoderBudget {
+
+    public static final int UNLIMITED = 0;
+    public static final int AUTO = -1;
+
+    public static final String VIDEO_MIME_TYPE = "video/avc";
+
+    public interface Client {
+        long getDecodePriority();
+
+        /**
+         * Called when the slot of the client is granted or revoked by another client's request, release or
+         * change of priority. May be called from any thread.
+         */
+        void onDecodeSlotChanged(boolean granted);
+    }
+
+    private static class Entry {
+        final Client client;
+        long priority;
+        boolean granted;
+
+        Entry(Client client) {
+            this.client = client;
+        }
+    }
+
+    private static final Comparator<Entry> BY_PRIORITY = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            if (a.priority != b.priority) {
+                return a.priority > b.priority ? -1 : 1;
+            }
+            return a.granted == b.granted ? 0 : (a.granted ? -1 : 1);
+        }
+    };
+
+    private final int mCapacity;
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+
+    /**
+     * @param capacity The number of decode slots; AUTO to query the device, UNLIMITED for no limit.
+     */
+    public DecoderBudget(int capacity) {
+        mCapacity = capacity == AUTO ? detectCapacity(VIDEO_MIME_TYPE) : capacity;
+        Log.d("R5VideoViewLayout", "DecoderBudget:capacity " + mCapacity);
+    }
+
+    /**
+     * @return the most concurrent instances any hardware decoder of the type supports,
+     * or UNLIMITED if the platform does not say (before API 23).
+     */
+    public static int detectCapacity(String mimeType) {
+
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) {
+            return UNLIMITED;
+        }
+        try {
+            return queryMaxSupportedInstances(mimeType);
+        } catch (RuntimeException e) {
+            Log.w("R5VideoViewLayout", "DecoderBudget:detectCapacity:error - " + e.getMessage());
+            return UNLIMITED;
+        }
+
+    }
+
+    @TargetApi(Build.VERSION_CODES.M)
+    private static int queryMaxSupportedInstances(String mimeType) {
+
+        int capacity = UNLIMITED;
+        for (int i = 0; i < MediaCodecList.getCodecCount(); i++) {
+            MediaCodecInfo info = MediaCodecList.getCodecInfoAt(i);
+            if (info.isEncoder() || isSoftwareCodec(info.getName())) {
+                continue;
+            }
+            for (String type : info.getSupportedTypes()) {
+                if (type.equalsIgnoreCase(mimeType)) {
+                    capacity = Math.max(capacity, info.getCapabilitiesForType(type).getMaxSupportedInstances());
+                }
+            }
+        }
+        return capacity;
+
+    }
+
+    private static boolean isSoftwareCodec(String name) {
+        return name.startsWith("OMX.google.") || name.startsWith("c2.android.");
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    public synchronized int getGrantedCount() {
+        int count = 0;
+        for (Entry entry : mEntries) {
+            if (entry.granted) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public synchronized int getClientCount() {
+        return mEntries.size();
+    }
+
+    /**
+     * Asks for a slot, possibly revoking that of a lower priority client.
+     *
+     * @return whether the client was granted a slot. The requesting client is not called back for its own request.
+     */
+    public boolean request(Client client) {
+
+        ArrayList<Entry> changed;
+        boolean granted;
+        synchronized (this) {
+            Entry entry = find(client);
+            if (entry == null) {
+                entry = new Entry(client);
+                mEntries.add(entry);
+            }
+            changed = rebalance();
+            changed.remove(entry);
+            granted = entry.granted;
+        }
+        notify(changed);
+        return granted;
+
+    }
+
+    public void release(Client client) {
+
+        ArrayList<Entry> changed;
+        synchronized (this) {
+            Entry entry = find(client);
+            if (entry == null) {
+                return;
+            }
+            mEntries.remove(entry);
+            changed = rebalance();
+        }
+        notify(changed);
+
+    }
+
+    /**
+     * Re-ranks the clients after the priority of any of them may have changed.
+     */
+    public void update() {
+
+        ArrayList<Entry> changed;
+        synchronized (this) {
+            if (mCapacity == UNLIMITED) {
+                return;
+            }
+            changed = rebalance();
+        }
+        notify(changed);
+
+    }
+
+    public synchronized boolean isGranted(Client client) {
+        Entry entry = find(client);
+        return entry != null && entry.granted;
+    }
+
+    private Entry find(Client client) {
+        for (Entry entry : mEntries) {
+            if (entry.client == client) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * @return the entries whose grant changed.
+     */
+    private ArrayList<Entry> rebalance() {
+
+        for (Entry entry : mEntries) {
+            entry.priority = entry.client.getDecodePriority();
+        }
+        ArrayList<Entry> ranked = new ArrayList<>(mEntries);
+        Collections.sort(ranked, BY_PRIORITY);
+
+        ArrayList<Entry> changed = new ArrayList<>();
+        for (int i = 0; i < ranked.size(); i++) {
+            Entry entry = ranked.get(i);
+            boolean granted = mCapacity == UNLIMITED || i < mCapacity;
+            if (entry.granted != granted) {
+                entry.granted = granted;
+                changed.add(entry);
+            }
+        }
+        return changed;
+
+    }
+
+    private static void notify(ArrayList<Entry> changed) {
+        // Revoked slots are handed back first, so that they are free by the time the granted clients start.
+        for (Entry entry : changed) {
+            if (!entry.granted) {
+                entry.client.onDecodeSlotChanged(false);
+            }
+        }
+        for (Entry entry : changed) {
+            if (entry.granted) {
+                entry.client.onDecodeSlotChanged(true);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
+import com.facebook.react.bridge.WritableNativeMap;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Collects the events of a session and delivers them to JS at most once per display frame.
+ *
+ * Each coalescing key has a policy: ALWAYS delivers every event, LATEST keeps only the most recent
+ * event pending in a frame, RATE_LIMITED additionally holds the latest event back until its interval
+ * has elapsed since the last delivery. A frame with several events is sent as a single batch event.
+ */
+public class EventDispatcher implements Choreographer.FrameCallback {
+
+    public enum Policy {
+        ALWAYS,
+        LATEST,
+        RATE_LIMITED
+    }
+
+    private static class Rule {
+        final Policy policy;
+        final long interval;
+
+        Rule(Policy policy, long interval) {
+            this.policy = policy;
+            this.interval = interval;
+        }
+    }
+
+    private static class Pending {
+        final String name;
+        final String key;
+        final WritableMap payload;
+
+        Pending(String name, String key, WritableMap payload) {
+            this.name = name;
+            this.key = key;
+            this.payload = payload;
+        }
+    }
+
+    private static final Rule DEFAULT_RULE = new Rule(Policy.ALWAYS, 0);
+
+    private final View mView;
+    private final RCTEventEmitter mEmitter;
+    private final String mBatchEventName;
+    private final Handler mUiHandler = new Handler(Looper.getMainLooper());
+
+    private final HashMap<String, Rule> mRules = new HashMap<>();
+    private ArrayList<Pending> mQueue = new ArrayList<>();
+    // Swapped with the queue on each frame; only touched on the UI thread.
+    private ArrayList<Pending> mDelivering = new ArrayList<>();
+    private final HashMap<String, Pending> mDeferred = new HashMap<>();
+    private final HashMap<String, Long> mLastDelivered = new HashMap<>();
+
+    private boolean mFrameScheduled;
+    // Uptime at which a frame is requested for deferred events, or 0.
+    private long mWakeAt;
+    private boolean mReleased;
+
+    private int mDispatched;
+    private int mCoalesced;
+    private int mDelivered;
+    private int mBatches;
+
+    private final Runnable mScheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(EventDispatcher.this);
+        }
+    };
+
+    private final Runnable mWake = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (EventDispatcher.this) {
+                mWakeAt = 0;
+                if (mFrameScheduled || mReleased) {
+                    return;
+                }
+                mFrameScheduled = true;
+            }
+            Choreographer.getInstance().postFrameCallback(EventDispatcher.this);
+        }
+    };
+
+    public EventDispatcher(View view, RCTEventEmitter emitter, String batchEventName) {
+        mView = view;
+        mEmitter = emitter;
+        mBatchEventName = batchEventName;
+    }
+
+    public synchronized void setPolicy(String key, Policy policy, long interval) {
+        mRules.put(key, new Rule(policy, interval));
+    }
+
+    public void dispatch(String name, WritableMap payload) {
+        dispatch(name, name, payload);
+    }
+
+    /**
+     * @param key groups the events that supersede one another, e.g. the buffering statuses of a stream.
+     */
+    public synchronized void dispatch(String name, String key, WritableMap payload) {
+
+        if (mReleased) {
+            return;
+        }
+        mDispatched++;
+
+        Rule rule = mRules.get(key);
+        if (rule == null) {
+            rule = DEFAULT_RULE;
+        }
+        Pending event = new Pending(name, key, payload);
+
+        if (rule.policy == Policy.ALWAYS) {
+            mQueue.add(event);
+            scheduleFrame(0);
+            return;
+        }
+
+        int index = indexOfPending(key);
+        if (index >= 0) {
+            // Takes the place of the event it supersedes, which already passed any rate limit, so that it keeps
+            // its order among the events of other keys. A frame is already scheduled for it.
+            mQueue.set(index, event);
+            mCoalesced++;
+            return;
+        }
+        if (mDeferred.remove(key) != null) {
+            mCoalesced++;
+        }
+
+        if (rule.policy == Policy.RATE_LIMITED) {
+            Long last = mLastDelivered.get(key);
+            long wait = last == null ? 0 : last + rule.interval - SystemClock.uptimeMillis();
+            if (wait > 0) {
+                mDeferred.put(key, event);
+                scheduleFrame(wait);
+                return;
+            }
+        }
+
+        mQueue.add(event);
+        scheduleFrame(0);
+
+    }
+
+    private int indexOfPending(String key) {
+        for (int i = mQueue.size() - 1; i >= 0; i--) {
+            if (mQueue.get(i).key.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Requests at most one frame at a time. A frame already scheduled takes up deferred events that are due,
+     * and schedules the next wake for those that are not, so a later wake is only requested without one.
+     */
+    private void scheduleFrame(long delay) {
+
+        if (delay > 0) {
+            long wakeAt = SystemClock.uptimeMillis() + delay;
+            if (mFrameScheduled || (mWakeAt != 0 && mWakeAt <= wakeAt)) {
+                return;
+            }
+            mWakeAt = wakeAt;
+            mUiHandler.removeCallbacks(mWake);
+            mUiHandler.postAtTime(mWake, wakeAt);
+            return;
+        }
+        if (mFrameScheduled) {
+            return;
+        }
+        mFrameScheduled = true;
+        mUiHandler.post(mScheduleFrame);
+
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        ArrayList<Pending> events;
+        int coalesced;
+        synchronized (this) {
+            mFrameScheduled = false;
+            if (mReleased) {
+                return;
+            }
+
+            long now = SystemClock.uptimeMillis();
+            long nextWake = 0;
+            Iterator<Pending> deferred = mDeferred.values().iterator();
+            while (deferred.hasNext()) {
+                Pending event = deferred.next();
+                Rule rule = mRules.get(event.key);
+                Long last = mLastDelivered.get(event.key);
+                if (rule == null || last == null || now - last >= rule.interval) {
+                    mQueue.add(event);
+                    deferred.remove();
+                } else {
+                    long wait = last + rule.interval - now;
+                    nextWake = nextWake == 0 ? wait : Math.min(nextWake, wait);
+                }
+            }
+            if (nextWake > 0) {
+                scheduleFrame(nextWake);
+            }
+            if (mQueue.isEmpty()) {
+                return;
+            }
+
+            events = mQueue;
+            mQueue = mDelivering;
+            mDelivering = events;
+            for (Pending event : events) {
+                if (mRules.containsKey(event.key)) {
+                    mLastDelivered.put(event.key, now);
+                }
+            }
+            mDelivered += events.size();
+            mBatches++;
+            coalesced = mCoalesced;
+        }
+
+        int tag = mView.getId();
+        if (events.size() == 1) {
+            Pending event = events.get(0);
+            mEmitter.receiveEvent(tag, event.name, event.payload);
+        } else {
+            WritableArray batch = new WritableNativeArray();
+            for (Pending event : events) {
+                WritableMap entry = new WritableNativeMap();
+                entry.putString("name", event.name);
+                entry.putMap("payload", event.payload);
+                batch.pushMap(entry);
+            }
+            WritableMap map = new WritableNativeMap();
+            map.putArray("events", batch);
+            map.putInt("coalesced", coalesced);
+            mEmitter.receiveEvent(tag, mBatchEventName, map);
+        }
+        events.clear();
+
+    }
+
+    public synchronized WritableMap getCounters() {
+        WritableMap map = new WritableNativeMap();
+        map.putInt("dispatched", mDispatched);
+        map.putInt("coalesced", mCoalesced);
+        map.putInt("delivered", mDelivered);
+        map.putInt("batches", mBatches);
+        return map;
+    }
+
+    public synchronized void release() {
+        mReleased = true;
+        mQueue.clear();
+        mDeferred.clear();
+        mUiHandler.removeCallbacks(mScheduleFrame);
+        mUiHandler.removeCallbacks(mWake);
+        mUiHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                Choreographer.getInstance().removeFrameCallback(EventDispatcher.this);
+            }
+        });
+    }
+
+}
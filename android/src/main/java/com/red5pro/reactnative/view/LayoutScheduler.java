@@ -0,0 +1,98 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+/**
+ * Collapses the layout requests made on a view into at most one layout pass per display frame.
+ *
+ * React Native does not lay out the native children of a view it manages, so the view runs a pass of its
+ * own after a request. Requests made while a pass is pending only count as coalesced, and the pass itself
+ * may decide there is nothing to do.
+ */
+public class LayoutScheduler implements Choreographer.FrameCallback {
+
+    public interface Pass {
+        /**
+         * @return false if the pass was skipped as the layout is unchanged.
+         */
+        boolean onLayoutPass();
+    }
+
+    private final Pass mPass;
+    private final Handler mUiHandler = new Handler(Looper.getMainLooper());
+
+    private boolean mScheduled;
+    private int mRequests;
+    private int mCoalesced;
+    private int mPasses;
+    private int mSkipped;
+
+    private final Runnable mScheduleFrame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(LayoutScheduler.this);
+        }
+    };
+
+    public LayoutScheduler(Pass pass) {
+        mPass = pass;
+    }
+
+    public synchronized void request() {
+
+        mRequests++;
+        if (mScheduled) {
+            mCoalesced++;
+            return;
+        }
+        mScheduled = true;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            Choreographer.getInstance().postFrameCallback(this);
+        } else {
+            mUiHandler.post(mScheduleFrame);
+        }
+
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        synchronized (this) {
+            mScheduled = false;
+        }
+        boolean ran = mPass.onLayoutPass();
+        synchronized (this) {
+            if (ran) {
+                mPasses++;
+            } else {
+                mSkipped++;
+            }
+        }
+
+    }
+
+    public synchronized void cancel() {
+        mScheduled = false;
+        mUiHandler.removeCallbacks(mScheduleFrame);
+        Choreographer.getInstance().removeFrameCallback(this);
+    }
+
+    public synchronized int getRequestCount() {
+        return mRequests;
+    }
+
+    public synchronized int getCoalescedCount() {
+        return mCoalesced;
+    }
+
+    public synchronized int getPassCount() {
+        return mPasses;
+    }
+
+    public synchronized int getSkippedCount() {
+        return mSkipped;
+    }
+
+}
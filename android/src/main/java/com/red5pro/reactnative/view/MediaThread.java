@@ -0,0 +1,116 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Serializes the R5Stream and camera work of a single session off of the UI thread.
+ *
+ * Tasks run in the order they are posted. Only view mutations are handed back to the UI thread.
+ */
+public class MediaThread {
+
+    private final HandlerThread mThread;
+    private final Handler mHandler;
+    private final Handler mUiHandler;
+    private volatile boolean mQuitting;
+
+    public MediaThread(String name) {
+
+        mThread = new HandlerThread(name, Process.THREAD_PRIORITY_MORE_FAVORABLE);
+        mThread.start();
+        mHandler = new Handler(mThread.getLooper());
+        mUiHandler = new Handler(Looper.getMainLooper());
+
+    }
+
+    public Handler getHandler() {
+        return mHandler;
+    }
+
+    public boolean isCurrentThread() {
+        return Looper.myLooper() == mThread.getLooper();
+    }
+
+    /**
+     * @return false if the task was dropped, as the thread has quit or is about to.
+     */
+    public boolean post(Runnable task) {
+        if (mQuitting || !mHandler.post(task)) {
+            Log.w("R5VideoViewLayout", "MediaThread:post:dropped - thread has quit.");
+            return false;
+        }
+        return true;
+    }
+
+    public void postDelayed(Runnable task, long delayMillis) {
+        mHandler.postDelayed(task, delayMillis);
+    }
+
+    public void cancel(Runnable task) {
+        mHandler.removeCallbacks(task);
+    }
+
+    public void postToUi(Runnable task) {
+        mUiHandler.post(task);
+    }
+
+    /**
+     * For callbacks that must be delivered even once this thread has quit.
+     */
+    public Handler getUiHandler() {
+        return mUiHandler;
+    }
+
+    /**
+     * Runs the view mutation on the UI thread, blocking the calling media task until it completes
+     * so that following stream operations observe the updated view.
+     */
+    public void runOnUiAndWait(final Runnable task) {
+
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            task.run();
+            return;
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        mUiHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+    }
+
+    /**
+     * Lets already queued tasks finish, then stops the thread.
+     */
+    public void quit() {
+        // HandlerThread.quitSafely() is API 18+, queue the quit behind pending tasks instead.
+        // Tasks posted from here on would be queued behind it and never run, so they are refused.
+        mQuitting = true;
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mThread.quit();
+            }
+        });
+    }
+
+}
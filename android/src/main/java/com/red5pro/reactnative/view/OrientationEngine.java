@@ -0,0 +1,225 @@
+package com.red5pro.reactnative.view;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.hardware.SensorManager;
+import android.hardware.display.DisplayManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.OrientationEventListener;
+import android.view.Surface;
+import android.view.WindowManager;
+
+/**
+ * Follows the rotation of the display for a publisher and reports each rotation once it has settled.
+ *
+ * Display rotation changes are observed directly where the platform allows it (API 17+), and the
+ * accelerometer flags a rotation that may be coming, including 180 degree turns that do not change the
+ * configuration. Either only schedules a check of the display rotation; a check that finds the rotation
+ * reported last does nothing, so a burst of signals results in at most one report.
+ *
+ * Starting and stopping run on the handler, in the order they are requested from any thread.
+ */
+public class OrientationEngine {
+
+    public interface Listener {
+        /**
+         * Called on the handler given to the engine with one of the Surface.ROTATION_ values.
+         */
+        void onRotationSettled(int rotation);
+    }
+
+    public static final long SETTLE_DELAY = 250; // ms
+
+    private final Context mContext;
+    private final Handler mHandler;
+    private final Listener mListener;
+    private final OrientationEventListener mSensorListener;
+    private Object mDisplayListener;
+
+    private boolean mStarted;
+    private volatile boolean mReleased;
+    private int mSensorQuadrant = -1;
+    private volatile int mReportedRotation = -1;
+    private int mSettledCount;
+
+    private final Runnable mSettle = new Runnable() {
+        @Override
+        public void run() {
+            int rotation = getDisplayRotation();
+            if (rotation == mReportedRotation) {
+                return;
+            }
+            mReportedRotation = rotation;
+            mSettledCount++;
+            mListener.onRotationSettled(rotation);
+        }
+    };
+
+    public OrientationEngine(Context context, Handler handler, Listener listener) {
+
+        mContext = context;
+        mHandler = handler;
+        mListener = listener;
+        mSensorListener = new OrientationEventListener(context, SensorManager.SENSOR_DELAY_UI) {
+            @Override
+            public void onOrientationChanged(int degrees) {
+                if (degrees == ORIENTATION_UNKNOWN) {
+                    return;
+                }
+                int quadrant = ((degrees + 45) / 90) % 4;
+                if (quadrant != mSensorQuadrant) {
+                    mSensorQuadrant = quadrant;
+                    check();
+                }
+            }
+        };
+
+    }
+
+    /*
+     * Camera and display orientation, in degrees, for the sensor orientation of the camera (CameraInfo.orientation
+     * or SENSOR_ORIENTATION), its facing and the display rotation. Kept free of state so that every combination
+     * can be checked in isolation.
+     */
+    public static int getDisplayOrientation(int sensorOrientation, int rotation) {
+        return (sensorOrientation + getInverseDegrees(rotation)) % 360;
+    }
+
+    public static int getCameraOrientation(int sensorOrientation, boolean backfacing, int rotation) {
+        int orientation = getDisplayOrientation(sensorOrientation, rotation);
+        if (rotation % 2 != 0) {
+            orientation += backfacing ? 0 : 180;
+        }
+        return orientation % 360;
+    }
+
+    private static int getInverseDegrees(int rotation) {
+        switch (rotation) {
+            case Surface.ROTATION_90: return 270;
+            case Surface.ROTATION_180: return 180;
+            case Surface.ROTATION_270: return 90;
+            default: return 0;
+        }
+    }
+
+    public int getDisplayRotation() {
+        WindowManager windowManager = (WindowManager) mContext.getSystemService(Context.WINDOW_SERVICE);
+        return windowManager.getDefaultDisplay().getRotation();
+    }
+
+    private final Runnable mStart = new Runnable() {
+        @Override
+        public void run() {
+            if (mStarted || mReleased) {
+                return;
+            }
+            mStarted = true;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+                mDisplayListener = DisplayListenerCompat.register(mContext, mHandler, OrientationEngine.this);
+            }
+            if (mSensorListener.canDetectOrientation()) {
+                mSensorListener.enable();
+            }
+            check();
+        }
+    };
+
+    private final Runnable mStop = new Runnable() {
+        @Override
+        public void run() {
+            if (!mStarted) {
+                return;
+            }
+            mStarted = false;
+            if (mDisplayListener != null) {
+                DisplayListenerCompat.unregister(mContext, mDisplayListener);
+                mDisplayListener = null;
+            }
+            mSensorListener.disable();
+            mSensorQuadrant = -1;
+            mHandler.removeCallbacks(mSettle);
+        }
+    };
+
+    public void start() {
+        if (!mReleased) {
+            runOnHandler(mStart);
+        }
+    }
+
+    public void stop() {
+        runOnHandler(mStop);
+    }
+
+    /**
+     * Stops the engine for good; starts requested afterwards, including ones already queued, do nothing.
+     */
+    public void release() {
+        mReleased = true;
+        runOnHandler(mStop);
+    }
+
+    private void runOnHandler(Runnable task) {
+        if (Looper.myLooper() == mHandler.getLooper()) {
+            task.run();
+        } else {
+            mHandler.post(task);
+        }
+    }
+
+    /**
+     * Schedules a check of the display rotation, postponing any check already scheduled.
+     */
+    public void check() {
+        mHandler.removeCallbacks(mSettle);
+        mHandler.postDelayed(mSettle, SETTLE_DELAY);
+    }
+
+    /**
+     * Makes the next check report the rotation even if it is the one reported last.
+     */
+    public void reset() {
+        mReportedRotation = -1;
+    }
+
+    boolean isStarted() {
+        return mStarted;
+    }
+
+    public int getSettledCount() {
+        return mSettledCount;
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+    private static class DisplayListenerCompat {
+
+        static Object register(Context context, Handler handler, final OrientationEngine engine) {
+            DisplayManager.DisplayListener listener = new DisplayManager.DisplayListener() {
+                @Override
+                public void onDisplayAdded(int displayId) {
+                }
+
+                @Override
+                public void onDisplayRemoved(int displayId) {
+                }
+
+                @Override
+                public void onDisplayChanged(int displayId) {
+                    engine.check();
+                }
+            };
+            DisplayManager manager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+            manager.registerDisplayListener(listener, handler);
+            return listener;
+        }
+
+        static void unregister(Context context, Object listener) {
+            DisplayManager manager = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+            manager.unregisterDisplayListener((DisplayManager.DisplayListener) listener);
+        }
+
+    }
+
+}
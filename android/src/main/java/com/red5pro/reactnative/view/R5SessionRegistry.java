@@ -0,0 +1,113 @@
+package com.red5pro.reactnative.view;
+
+import android.util.Log;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the R5VideoViewLayout sessions of a view manager by React tag.
+ *
+ * Also enforces an optional cap on the number of sessions that may be connecting or streaming at once,
+ * and holds the decoder budget, the texture renderer and the video view pool shared by its subscribers.
+ */
+public class R5SessionRegistry {
+
+    public static final int UNLIMITED_SESSIONS = 0;
+
+    private final ConcurrentHashMap<Integer, R5VideoViewLayout> mSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger mActiveSessions = new AtomicInteger();
+    private final int mMaxActiveSessions;
+    private final DecoderBudget mDecoderBudget;
+    private TextureRenderer mTextureRenderer;
+    private final VideoViewPool mVideoViewPool = new VideoViewPool(VideoViewPool.DEFAULT_CAPACITY);
+
+    public R5SessionRegistry(int maxActiveSessions) {
+        this(maxActiveSessions, DecoderBudget.AUTO);
+    }
+
+    /**
+     * @param maxDecoders The number of subscribers that may render video at once; DecoderBudget.AUTO to
+     *                    use the capacity of the device's hardware decoder, DecoderBudget.UNLIMITED for no limit.
+     */
+    public R5SessionRegistry(int maxActiveSessions, int maxDecoders) {
+        mMaxActiveSessions = maxActiveSessions;
+        mDecoderBudget = new DecoderBudget(maxDecoders);
+    }
+
+    public DecoderBudget getDecoderBudget() {
+        return mDecoderBudget;
+    }
+
+    /*
+     * Created on first use, so that the EGL classes are only loaded once a texture view needs them.
+     */
+    public synchronized TextureRenderer getTextureRenderer() {
+        if (mTextureRenderer == null) {
+            mTextureRenderer = new TextureRenderer();
+        }
+        return mTextureRenderer;
+    }
+
+    public VideoViewPool getVideoViewPool() {
+        return mVideoViewPool;
+    }
+
+    public void register(R5VideoViewLayout session) {
+        int tag = session.getId();
+        if (tag <= 0) {
+            return;
+        }
+        mSessions.put(tag, session);
+    }
+
+    public void unregister(R5VideoViewLayout session) {
+        mSessions.remove(session.getId(), session);
+    }
+
+    public R5VideoViewLayout get(int tag) {
+        return mSessions.get(tag);
+    }
+
+    public Collection<R5VideoViewLayout> getSessions() {
+        return mSessions.values();
+    }
+
+    public int size() {
+        return mSessions.size();
+    }
+
+    public int getActiveSessionCount() {
+        return mActiveSessions.get();
+    }
+
+    public int getMaxActiveSessions() {
+        return mMaxActiveSessions;
+    }
+
+    /**
+     * Reserves a slot for a session about to connect.
+     *
+     * @return false if the cap of active sessions has been reached.
+     */
+    public boolean acquireSlot() {
+
+        while (true) {
+            int active = mActiveSessions.get();
+            if (mMaxActiveSessions > UNLIMITED_SESSIONS && active >= mMaxActiveSessions) {
+                Log.w("R5VideoViewManager", "Session limit of " + mMaxActiveSessions + " reached.");
+                return false;
+            }
+            if (mActiveSessions.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+
+    }
+
+    public void releaseSlot() {
+        mActiveSessions.decrementAndGet();
+    }
+
+}
@@ -1,31 +1,32 @@
 package com.red5pro.reactnative.view;
 
 import android.app.Activity;
-import android.app.ActivityManager;
-import android.content.ComponentName;
-import android.content.Context;
-import android.content.Intent;
-import android.content.ServiceConnection;
 import android.content.res.Configuration;
 import android.graphics.Color;
 import android.hardware.Camera;
+import android.hardware.camera2.CameraCharacteristics;
+import android.hardware.camera2.CameraDevice;
 import android.os.Handler;
 import android.os.IBinder;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
-import android.view.Surface;
-import android.view.View;
+import android.util.Size;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.util.DisplayMetrics;
 
 import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.LifecycleEventListener;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.bridge.WritableNativeArray;
 import com.facebook.react.bridge.WritableNativeMap;
 import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.events.RCTEventEmitter;
 
+import com.red5pro.reactnative.util.EventUtil;
+import com.red5pro.reactnative.util.StreamMetaData;
 import com.red5pro.streaming.R5Connection;
 import com.red5pro.streaming.R5Stream;
 import com.red5pro.streaming.config.R5Configuration;
@@ -34,12 +35,14 @@ import com.red5pro.streaming.event.R5ConnectionListener;
 import com.red5pro.streaming.media.R5AudioController;
 import com.red5pro.streaming.source.R5AdaptiveBitrateController;
 import com.red5pro.streaming.source.R5Camera;
+import com.red5pro.streaming.source.R5Camera2;
 import com.red5pro.streaming.source.R5Microphone;
 import com.red5pro.streaming.view.R5VideoView;
 
+import java.util.List;
+
 public class R5VideoViewLayout extends FrameLayout
-        implements R5ConnectionListener, LifecycleEventListener,
-        PublishService.PublishServicable, SubscribeService.SubscribeServicable {
+        implements R5ConnectionListener, StreamPreloader.Client, LifecycleEventListener {
 
     public int logLevel;
     public int scaleMode;
@@ -48,51 +51,77 @@ public class R5VideoViewLayout extends FrameLayout
     protected String mStreamName;
     protected R5Stream.RecordType mStreamType;
     protected boolean mIsPublisher;
-    protected boolean mIsStreaming;
+    protected final SessionStateMachine mState = new SessionStateMachine();
     protected R5VideoView mVideoView;
     protected boolean mIsPublisherSetup;
+    // Bumped on every publisher setup and cleanup, so that a camera2 device opening late knows it is no longer wanted.
+    private int mPublisherSetupGeneration;
 
     protected ThemedReactContext mContext;
+    protected MediaThread mMediaThread;
+    protected R5SessionRegistry mSessionRegistry;
+    protected boolean mHoldsSessionSlot;
     protected RCTEventEmitter mEventEmitter;
+    protected EventDispatcher mEventDispatcher;
     protected R5Configuration mConfiguration;
+    protected String mConfigurationKey;
+    // Last configuration handed over from the UI thread; mConfiguration catches up on the media thread.
+    private R5Configuration mRequestedConfiguration;
     protected R5Connection mConnection;
     protected R5Stream mStream;
     protected R5Camera mCamera;
+    protected R5Camera2 mCamera2;
 
     protected boolean mIsRestrainingVideo;
+    protected volatile boolean mIsVideoSuspended;
+    protected boolean mIsInBackground;
+    private volatile boolean mIsCameraResuming;
+    private volatile long mVideoResumeRequestedAt;
+    private long mVideoResumeCameraOpenedAt;
+    private long mLastVideoResume = -1;
+    private long mMaxVideoResume;
+    private long mTotalVideoResume;
+    private int mVideoResumeCount;
+    protected static final int SUSPEND_BACKGROUND = 1;
+    protected static final int SUSPEND_HIDDEN = 1 << 1;
+    protected static final int SUSPEND_BUDGET = 1 << 2;
+    protected int mDecodeSuspendReasons;
+    protected boolean mIsDecodeSuspended;
+    protected boolean mSuspendWhenHidden = false;
+    protected final VisibilityTracker mVisibilityTracker;
+    private long mDecodeActiveSince;
+    private long mDecodeActiveTime;
+    protected int mDecodePriority = 0;
+    private volatile long mDecodePrioritySnapshot;
+    private volatile boolean mHoldsDecodeSlotRequest;
+    protected final StreamPreloader mPreloader;
+    private boolean mIsSwitchingRendition;
+    private String mPlayingStreamName;
     protected boolean mIsBackgroundBound;
+    private boolean mIsBackgroundStartPending;
 
-    protected PublishService mBackgroundPublishService;
-    private Intent mPubishIntent;
-
-    private ServiceConnection mPublishServiceConnection = new ServiceConnection() {
-        @Override
-        public void onServiceConnected(ComponentName name, IBinder service) {
-            Log.d("R5VideoViewLayout", "connection:onServiceConnected()");
-            mBackgroundPublishService = ((PublishService.PublishServiceBinder)service).getService();
-            mBackgroundPublishService.setServicableDelegate(R5VideoViewLayout.this);
-        }
-        @Override
-        public void onServiceDisconnected(ComponentName name) {
-            Log.d("R5VideoViewLayout", "connection:onServiceDisconnected()");
-            mBackgroundPublishService = null;
-        }
-    };
-
-    protected SubscribeService mBackgroundSubscribeService;
-    private Intent mSubscribeIntent;
+    protected StreamingService mBackgroundService;
 
-    private ServiceConnection mSubscribeServiceConnection = new ServiceConnection() {
+    private BackgroundServiceRegistry.Client mBackgroundServiceClient = new BackgroundServiceRegistry.Client() {
         @Override
-        public void onServiceConnected(ComponentName name, IBinder service) {
+        public void onServiceAvailable(IBinder service) {
             Log.d("R5VideoViewLayout", "connection:onServiceConnected()");
-            mBackgroundSubscribeService = ((SubscribeService.SubscribeServiceBinder)service).getService();
-            mBackgroundSubscribeService.setServicableDelegate(R5VideoViewLayout.this);
+            mBackgroundService = ((StreamingService.StreamingServiceBinder)service).getService();
+            if (!mIsBackgroundStartPending) {
+                return;
+            }
+            mIsBackgroundStartPending = false;
+            if (mIsPublisher) {
+                publishBound();
+            }
+            else {
+                subscribeBound();
+            }
         }
         @Override
-        public void onServiceDisconnected(ComponentName name) {
+        public void onServiceLost() {
             Log.d("R5VideoViewLayout", "connection:onServiceDisconnected()");
-            mBackgroundSubscribeService = null;
+            mBackgroundService = null;
         }
     };
 
@@ -108,21 +137,38 @@ public class R5VideoViewLayout extends FrameLayout
     protected int mAudioSampleRate = 44100;
     protected boolean mUseAdaptiveBitrateController = false;
     protected boolean mUseBackfacingCamera = false;
+    protected boolean mUseCamera2 = false;
     protected boolean mEnableBackgroundStreaming = false;
+    protected String mBackgroundStreamName;
     protected boolean mZOrderOnTop = false;
     protected boolean mZOrderMediaOverlay = false;
+    protected boolean mUseTextureView = false;
+    protected boolean mAutoReconnect = false;
+    protected int mReconnectMaxAttempts = 5;
+    protected int mReconnectBaseDelay = 500;
+    protected int mReconnectMaxDelay = 10000;
+    protected final ReconnectPolicy mReconnectPolicy = new ReconnectPolicy(mReconnectMaxAttempts, mReconnectBaseDelay, mReconnectMaxDelay);
+    protected final StartupTimeline mStartupTimeline = new StartupTimeline();
+    protected int mStatsInterval = 0;
+    protected int mStatsHistorySize = 30;
+    protected int mStatsReportInterval = 1000;
+    protected final StatsSampler mStatsSampler = new StatsSampler(mStatsHistorySize);
+    private long mLastStatsReport;
+    private final StreamMetaData mMetaData = new StreamMetaData();
 
     protected int mClientWidth;
     protected int mClientHeight;
     protected int mClientScreenWidth;
     protected int mClientScreenHeight;
     protected boolean mRequiresScaleSizeUpdate = false;
+    private final VideoViewTransform mVideoTransform = new VideoViewTransform();
 
     protected int mCameraOrientation;
     protected int mDisplayOrientation;
-    protected boolean mOrientationDirty;
     protected int mOrigCamOrientation = 0;
-    protected View.OnLayoutChangeListener mLayoutListener;
+    protected OrientationEngine mOrientationEngine;
+    private int mLastMetaOrientation = -1;
+    private int mMetaUpdateCount;
 
     public enum Events {
 
@@ -131,7 +177,14 @@ public class R5VideoViewLayout extends FrameLayout
         PUBLISHER_STATUS("onPublisherStreamStatus"),
         SUBSCRIBER_STATUS("onSubscriberStreamStatus"),
         UNPUBLISH_NOTIFICATION("onUnpublishNotification"),
-        UNSUBSCRIBE_NOTIFICATION("onUnsubscribeNotification");
+        UNSUBSCRIBE_NOTIFICATION("onUnsubscribeNotification"),
+        RECONNECT_STATUS("onReconnectStatus"),
+        STARTUP_TIMING("onStartupTiming"),
+        STREAM_STATS("onStreamStats"),
+        VIDEO_RESUME("onVideoResume"),
+        VISIBILITY_CHANGED("onVisibilityChange"),
+        DECODER_SLOT("onDecoderSlot"),
+        EVENT_BATCH("onEventBatch");
 
         private final String mName;
 
@@ -159,7 +212,9 @@ public class R5VideoViewLayout extends FrameLayout
         UNMUTE_AUDIO("unmuteAudio", 9),
         MUTE_VIDEO("muteVideo", 10),
         UNMUTE_VIDEO("unmuteVideo", 11),
-        SET_PLAYBACK_VOLUME("setPlaybackVolume", 12);
+        SET_PLAYBACK_VOLUME("setPlaybackVolume", 12),
+        REQUEST_STARTUP_TIMING("requestStartupTiming", 13),
+        PRELOAD("preload", 14);
 
         private final String mName;
         private final int mValue;
@@ -180,20 +235,134 @@ public class R5VideoViewLayout extends FrameLayout
 
     }
 
-    R5VideoViewLayout(ThemedReactContext context) {
+    R5VideoViewLayout(ThemedReactContext context, R5SessionRegistry registry) {
 
         super(context);
 
         mContext = context;
+        mSessionRegistry = registry;
+        mPreloader = new StreamPreloader(registry);
         mEventEmitter = mContext.getJSModule(RCTEventEmitter.class);
+        mEventDispatcher = new EventDispatcher(this, mEventEmitter, Events.EVENT_BATCH.toString());
+        setupEventPolicies();
+        mVisibilityTracker = new VisibilityTracker(this, mVisibilityListener);
+        updateDecodePrioritySnapshot();
+        mMediaThread = new MediaThread("R5VideoViewLayout-media");
+        mOrientationEngine = new OrientationEngine(context, mMediaThread.getHandler(), mOrientationListener);
         setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
         mContext.addLifecycleEventListener(this);
 
     }
 
+    /*
+     * Events not listed here are always delivered, in order, with the next frame.
+     */
+    private void setupEventPolicies () {
+
+        for (Events status : new Events[] { Events.PUBLISHER_STATUS, Events.SUBSCRIBER_STATUS }) {
+            // Buffering flaps within a frame only need their outcome delivered.
+            mEventDispatcher.setPolicy(status + ":buffer", EventDispatcher.Policy.LATEST, 0);
+            mEventDispatcher.setPolicy(status + ":audioMute", EventDispatcher.Policy.LATEST, 0);
+            mEventDispatcher.setPolicy(status + ":videoMute", EventDispatcher.Policy.LATEST, 0);
+            mEventDispatcher.setPolicy(status + ":abr", EventDispatcher.Policy.RATE_LIMITED, 1000);
+        }
+        mEventDispatcher.setPolicy(Events.STREAM_STATS.toString(), EventDispatcher.Policy.LATEST, 0);
+        mEventDispatcher.setPolicy(Events.STARTUP_TIMING.toString(), EventDispatcher.Policy.LATEST, 0);
+        mEventDispatcher.setPolicy(Events.VIDEO_RESUME.toString(), EventDispatcher.Policy.LATEST, 0);
+        mEventDispatcher.setPolicy(Events.VISIBILITY_CHANGED.toString(), EventDispatcher.Policy.LATEST, 0);
+
+    }
+
+    private static String getStatusCoalescingKey (String eventName, R5ConnectionEvent event) {
+
+        if (event == R5ConnectionEvent.BUFFER_FLUSH_START || event == R5ConnectionEvent.BUFFER_FLUSH_EMPTY) {
+            return eventName + ":buffer";
+        }
+        if (event == R5ConnectionEvent.AUDIO_MUTE || event == R5ConnectionEvent.AUDIO_UNMUTE) {
+            return eventName + ":audioMute";
+        }
+        if (event == R5ConnectionEvent.VIDEO_MUTE || event == R5ConnectionEvent.VIDEO_UNMUTE) {
+            return eventName + ":videoMute";
+        }
+        if (event == R5ConnectionEvent.ABR_LEVEL_CHANGED) {
+            return eventName + ":abr";
+        }
+        return eventName;
+
+    }
+
+    public WritableMap getEventCounters () {
+        WritableMap map = mEventDispatcher.getCounters();
+        map.putMap("layout", getLayoutCounters());
+        map.putMap("orientation", getOrientationCounters());
+        map.putMap("render", getRenderCounters());
+        map.putMap("viewPool", getViewPoolCounters());
+        return map;
+    }
+
+    public void runOnMediaThread (Runnable task) {
+        mMediaThread.post(task);
+    }
+
+    public SessionState getSessionState () {
+        return mState.get();
+    }
+
+    public void release () {
+
+        Log.d("R5VideoViewLayout", "release()");
+        mContext.removeLifecycleEventListener(this);
+        mEventDispatcher.release();
+        mLayoutScheduler.cancel();
+        mOrientationEngine.release();
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mPreloader.clear();
+            }
+        });
+
+        final SessionState previous = mState.transitionTo(SessionState.RELEASED);
+        if (previous != null && previous != SessionState.IDLE) {
+            runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    teardown(previous.isActive());
+                }
+            });
+        }
+        // The view is pooled only once the teardown queued ahead of this has detached the stream from it.
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mMediaThread.postToUi(new Runnable() {
+                    @Override
+                    public void run() {
+                        returnVideoView();
+                    }
+                });
+            }
+        });
+        mMediaThread.quit();
+
+    }
+
     protected void createVideoView () {
 
-        mVideoView = new R5VideoView(mContext);
+        if (!mIsPublisher) {
+            String key = VideoViewPool.getKey(mUseTextureView, mZOrderOnTop, mZOrderMediaOverlay, getWidth(), getHeight());
+            mVideoView = mSessionRegistry.getVideoViewPool().take(key);
+            if (mVideoView instanceof TextureVideoView) {
+                ((TextureVideoView)mVideoView).setRetainSurface(false);
+            }
+        }
+        if (mVideoView != null) {
+            Log.d("R5VideoViewLayout", "createVideoView:pooled");
+        } else if (!mIsPublisher && mUseTextureView) {
+            mVideoView = new TextureVideoView(mContext, mSessionRegistry.getTextureRenderer());
+        } else {
+            mVideoView = new R5VideoView(mContext);
+        }
         mVideoView.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
         mVideoView.setBackgroundColor(Color.BLACK);
         if (mZOrderOnTop) {
@@ -206,15 +375,128 @@ public class R5VideoViewLayout extends FrameLayout
 
     }
 
+    /*
+     * Hands the video view of a dropped subscriber, detached from its stream, to the pool of the registry.
+     * Called on the UI thread; the teardown that follows finds no view to detach.
+     */
+    private void returnVideoView () {
+
+        final R5VideoView view = mVideoView;
+        if (view == null || mIsPublisher) {
+            return;
+        }
+        mVideoView = null;
+        view.attachStream(null);
+        view.showDebugView(false);
+        view.setScaleX(1f);
+        view.setScaleY(1f);
+        boolean textureView = view instanceof TextureVideoView;
+        if (textureView) {
+            ((TextureVideoView)view).setRetainSurface(true);
+        }
+        String key = VideoViewPool.getKey(textureView, view.getZOrderOnTop(), view.getZOrderMediaOverlay(),
+                getWidth(), getHeight());
+        removeView(view);
+        mSessionRegistry.getVideoViewPool().put(key, view, getWidth(), getHeight());
+
+    }
+
+    public R5Configuration getRequestedConfiguration() {
+        return mRequestedConfiguration;
+    }
+
     public void loadConfiguration(final R5Configuration configuration, final String forKey) {
 
-        mConfiguration = configuration;
-        initiate(configuration, forKey);
+        mRequestedConfiguration = configuration;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mConfiguration = configuration;
+                initiate(configuration, forKey);
+            }
+        });
+
+    }
+
+    /*
+     * Host, port or context changed: rebuild the connection, deferring it to the next session if one is live.
+     */
+    public void swapConfiguration(final R5Configuration configuration, final String forKey) {
+
+        mRequestedConfiguration = configuration;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mConfiguration = configuration;
+                if (mState.get().isActive()) {
+                    // cleanup() at the end of the session drops the stream; the next one connects with the new configuration.
+                    Log.d("R5VideoViewLayout", "swapConfiguration:deferred (" + mState.get() + ")");
+                } else if (mState.is(SessionState.CONFIGURED)) {
+                    Log.d("R5VideoViewLayout", "swapConfiguration()");
+                    if (mStream != null) {
+                        teardown(false);
+                    }
+                    establishConnection(configuration);
+                }
+                onConfigured(forKey);
+            }
+        });
+
+    }
+
+    /*
+     * Settings other than the endpoint changed: update the configuration the connection already holds.
+     */
+    public void updateConfiguration(final R5Configuration configuration, final String forKey) {
+
+        mRequestedConfiguration = configuration;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mConfiguration != null && !mState.get().isActive()) {
+                    copyConfiguration(configuration, mConfiguration);
+                } else {
+                    mConfiguration = configuration;
+                }
+                onConfigured(forKey);
+            }
+        });
+
+    }
+
+    public void updateConfigurationKey(final String forKey) {
+
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                if (forKey == null ? mConfigurationKey != null : !forKey.equals(mConfigurationKey)) {
+                    onConfigured(forKey);
+                }
+            }
+        });
+
+    }
+
+    private void copyConfiguration(R5Configuration from, R5Configuration to) {
+
+        to.setStreamName(from.getStreamName());
+        to.setBundleID(from.getBundleID());
+        to.setLicenseKey(from.getLicenseKey());
+        to.setParameters(from.getParameters());
+        to.setBufferTime(from.getBufferTime());
+        to.setStreamBufferTime(from.getStreamBufferTime());
 
     }
 
     public void initiate(R5Configuration configuration, String forKey) {
 
+        if (mState.transitionTo(SessionState.CONFIGURED) == null) {
+            // Keep the live connection; the configuration is used when the next session is established.
+            Log.d("R5VideoViewLayout", "initiate:deferred (" + mState.get() + ")");
+            onConfigured(forKey);
+            return;
+        }
+
         establishConnection(configuration);
         onConfigured(forKey);
 
@@ -237,23 +519,98 @@ public class R5VideoViewLayout extends FrameLayout
 
     }
 
-    private void doSubscribe (String streamName, Boolean showDebug) {
+    private void doSubscribe (String streamName, final Boolean showDebug) {
 
-        if (mPlaybackVideo && this.getVideoView() == null) {
-            createVideoView();
-            mVideoView.attachStream(mStream);
-            mVideoView.showDebugView(showDebug);
-        } else if (mPlaybackVideo && this.getVideoView() != null) {
-            mVideoView.attachStream(mStream);
-        }
+        mPlayingStreamName = streamName;
+        attachSubscriberView(showDebug);
         mStream.play(streamName);
 
     }
 
+    private void attachSubscriberView (final Boolean showDebug) {
+
+        if (mDecodeSuspendReasons != 0) {
+            mIsDecodeSuspended = true;
+            return;
+        }
+        if (mPlaybackVideo) {
+            final R5Stream stream = mStream;
+            mMediaThread.runOnUiAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    if (getVideoView() == null) {
+                        createVideoView();
+                        mVideoView.attachStream(stream);
+                        mVideoView.showDebugView(showDebug);
+                    } else {
+                        mVideoView.attachStream(stream);
+                    }
+                }
+            });
+        }
+
+    }
+
+    /*
+     * Loads the listed streams in the background, so that subscribing to one of them only attaches it.
+     */
+    public void preload (List<String> streamNames) {
+
+        if (mConfiguration == null) {
+            Log.w("R5VideoViewLayout", "preload:rejected - not configured.");
+            return;
+        }
+        mPreloader.preload(mConfiguration, streamNames, logLevel);
+        schedulePreloadTrim();
+
+    }
+
+    private void schedulePreloadTrim () {
+        mMediaThread.cancel(mPreloadTrimTask);
+        if (mPreloader.size() > 0) {
+            mMediaThread.postDelayed(mPreloadTrimTask, StreamPreloader.DEFAULT_IDLE_TIME);
+        }
+    }
+
+    private final Runnable mPreloadTrimTask = new Runnable() {
+        @Override
+        public void run() {
+            mPreloader.trim();
+            schedulePreloadTrim();
+        }
+    };
+
+    private void adoptPreloadedStream (StreamPreloader.Entry preloaded) {
+
+        Log.d("R5VideoViewLayout", "subscribe:preloaded(" + preloaded.getStreamName() + ")");
+        if (mStream != null) {
+            mStream.setListener(null);
+            mStream.client = null;
+        }
+        if (mConnection != null) {
+            mConnection.removeListener();
+        }
+        mConnection = preloaded.getConnection();
+        mStream = preloaded.getStream();
+        mStream.setScaleMode(scaleMode);
+
+        mPlayingStreamName = preloaded.getStreamName();
+        attachSubscriberView(showDebug);
+
+        // Takes over the listener and client, and replays what the stream went through before it was adopted.
+        preloaded.handOver(this);
+
+    }
+
     public void subscribeBound () {
 
         Log.d("R5VideoViewLayout", "doSubscribeBound()");
-        doSubscribe(mStreamName, showDebug);
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                doSubscribe(mStreamName, showDebug);
+            }
+        });
 
     }
 
@@ -261,7 +618,27 @@ public class R5VideoViewLayout extends FrameLayout
 
         Log.d("R5VideoViewLayout", "subscribe()");
 
+        if (!mState.transition(SessionState.CONFIGURED, SessionState.CONNECTING)) {
+            Log.w("R5VideoViewLayout", "subscribe:rejected (" + mState.get() + ")");
+            return;
+        }
+
         mStreamName = streamName;
+        if (!acquireSessionSlot(false)) {
+            mState.transition(SessionState.CONNECTING, SessionState.CONFIGURED);
+            return;
+        }
+        mStartupTimeline.begin();
+        if (mPlaybackVideo) {
+            requestDecodeSlot();
+        }
+
+        StreamPreloader.Entry preloaded = mEnableBackgroundStreaming ? null : mPreloader.take(streamName);
+        if (preloaded != null) {
+            adoptPreloadedStream(preloaded);
+            schedulePreloadTrim();
+            return;
+        }
 
         if (mStream == null) {
             Log.d("R5VideoViewLayout", "subscriber re-establishing connection.");
@@ -271,8 +648,7 @@ public class R5VideoViewLayout extends FrameLayout
         if (mEnableBackgroundStreaming) {
             Log.d("R5VideoViewLayout", "setting up bound subscriber for background streaming.");
             // Set up service and offload setup.
-            mSubscribeIntent = new Intent(mContext.getCurrentActivity(), SubscribeService.class);
-            detectToStartService(mSubscribeIntent, mSubscribeServiceConnection);
+            acquireBackgroundService();
             return;
         }
 
@@ -284,45 +660,123 @@ public class R5VideoViewLayout extends FrameLayout
 
         Log.d("R5VideoViewLayout", "unsubscribe()");
 
-        if (mVideoView != null) {
-            mVideoView.attachStream(null);
+        if (mReconnectPolicy.isActive()) {
+            cancelReconnect();
+            return;
+        }
+
+        boolean stopping = mState.transition(SessionState.STREAMING, SessionState.STOPPING);
+        // A session still connecting is cancelled; it has no stop to wait for.
+        boolean cancelling = !stopping && mState.is(SessionState.CONNECTING);
+        if (!stopping && !cancelling && !mState.is(SessionState.CONFIGURED)) {
+            Log.w("R5VideoViewLayout", "unsubscribe:rejected (" + mState.get() + ")");
+            return;
         }
 
-        if (mStream != null && mIsStreaming) {
+        detachVideoView();
+
+        if (stopping && mStream != null) {
             mStream.stop();
         }
         else {
+            if (cancelling) {
+                cancelConnect();
+            }
             WritableMap map = Arguments.createMap();
-            mEventEmitter.receiveEvent(this.getId(), Events.UNSUBSCRIBE_NOTIFICATION.toString(), map);
+            mEventDispatcher.dispatch(Events.UNSUBSCRIBE_NOTIFICATION.toString(), map);
             Log.d("R5VideoViewLayout", "UNSUBSCRIBE");
             cleanup();
         }
 
     }
 
+    /*
+     * Closes the connection of a stream that has not started streaming, ahead of cleanup().
+     */
+    private void cancelConnect() {
+
+        if (mStream == null) {
+            return;
+        }
+        mStream.setListener(null);
+        try {
+            mStream.stop();
+        } catch (Exception e) {
+            Log.w("R5VideoViewLayout", "cancelConnect:error - " + e.getMessage());
+        }
+
+    }
+
     public void setupPublisher (Boolean withPreview) {
+        setupPublisher(withPreview, null);
+    }
+
+    protected void setupPublisher (final Boolean withPreview, final Runnable onSetupComplete) {
 
         mIsPublisher = true;
-        if (mLayoutListener == null) {
-            mLayoutListener = setUpOrientationListener();
+        if (!mState.is(SessionState.RELEASED)) {
+            mOrientationEngine.start();
         }
 
         R5Camera camera = null;
         // Establish Camera if requested.
         if (mUseVideo) {
 
-            if (this.getVideoView() == null) {
-                createVideoView();
-                if (mRequiresScaleSizeUpdate) {
-                    this.updateScaleSize(mClientWidth, mClientHeight, mClientScreenWidth, mClientScreenHeight);
+            mMediaThread.runOnUiAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    if (getVideoView() == null) {
+                        createVideoView();
+                        if (mRequiresScaleSizeUpdate) {
+                            updateScaleSize(mClientWidth, mClientHeight, mClientScreenWidth, mClientScreenHeight);
+                        }
+                    }
                 }
+            });
+
+            if (useCamera2()) {
+                // camera2 devices open asynchronously; setup resumes once the device is available,
+                // unless the session was stopped, or stopped and started again, in the meantime.
+                final int generation = ++mPublisherSetupGeneration;
+                openCamera2(mUseBackfacingCamera, new Camera2Opener.Callback() {
+                    @Override
+                    public void onCameraOpened(CameraDevice device, CameraCharacteristics characteristics, int sensorOrientation) {
+                        if (isStalePublisherSetup(generation)) {
+                            Log.d("R5VideoViewLayout", "setupPublisher:camera2 opened after unpublish.");
+                            device.close();
+                            return;
+                        }
+                        applyCamera2Orientation(sensorOrientation, mUseBackfacingCamera);
+
+                        Size size = Camera2Opener.getCaptureSize(characteristics, mCameraWidth, mCameraHeight, mFramerate);
+                        if (size.getWidth() != mCameraWidth || size.getHeight() != mCameraHeight) {
+                            Log.d("R5VideoViewLayout", "setupPublisher:camera2 capture size " + size.getWidth() + "x" + size.getHeight());
+                        }
+                        R5Camera2 camera2 = new R5Camera2(device, characteristics, size.getWidth(), size.getHeight());
+                        camera2.setBitrate(mBitrate);
+                        camera2.setOrientation(mCameraOrientation);
+                        camera2.setFramerate(mFramerate);
+                        mCamera2 = camera2;
+
+                        completePublisherSetup(withPreview, onSetupComplete);
+                    }
+
+                    @Override
+                    public void onCameraError(String message) {
+                        Log.w("R5VideoViewLayout", "setupPublisher:camera2:error - " + message);
+                        if (isStalePublisherSetup(generation)) {
+                            return;
+                        }
+                        completePublisherSetup(withPreview, onSetupComplete);
+                    }
+                });
+                return;
             }
 
             Camera device = mUseBackfacingCamera
                     ? openBackFacingCameraGingerbread()
                     : openFrontFacingCameraGingerbread();
 
-            updateDeviceOrientationOnLayoutChange();
             int rotate = mUseBackfacingCamera ? 0 : 180;
             device.setDisplayOrientation((mCameraOrientation + rotate) % 360);
 
@@ -338,6 +792,16 @@ public class R5VideoViewLayout extends FrameLayout
 
         }
 
+        completePublisherSetup(withPreview, onSetupComplete);
+
+    }
+
+    private boolean isStalePublisherSetup (int generation) {
+        return generation != mPublisherSetupGeneration || !mState.is(SessionState.CONNECTING) || mStream == null;
+    }
+
+    private void completePublisherSetup (Boolean withPreview, Runnable onSetupComplete) {
+
         // Assign ABR Controller if requested.
         if (mUseAdaptiveBitrateController) {
             R5AdaptiveBitrateController adaptor = new R5AdaptiveBitrateController();
@@ -356,8 +820,16 @@ public class R5VideoViewLayout extends FrameLayout
 
         }
 
-        if (mVideoView != null && mUseVideo) {
-            mVideoView.attachStream(mStream);
+        if (mUseVideo) {
+            final R5Stream stream = mStream;
+            mMediaThread.runOnUiAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    if (mVideoView != null) {
+                        mVideoView.attachStream(stream);
+                    }
+                }
+            });
         }
         if (mCamera != null && mUseVideo) {
             mStream.attachCamera(mCamera);
@@ -365,46 +837,56 @@ public class R5VideoViewLayout extends FrameLayout
               mCamera.getCamera().startPreview();
             }
         }
+        else if (mCamera2 != null && mUseVideo) {
+            mStream.attachCamera(mCamera2);
+        }
 
         mIsPublisherSetup = true;
-    }
-
-    private void detectToStartService (Intent intent, ServiceConnection connection) {
-        Log.d("R5VideoViewLayout", "detectStartService()");
-        boolean found = false;
-        Activity activity = mContext.getCurrentActivity();
-        ActivityManager actManager = (ActivityManager) activity.getSystemService(Context.ACTIVITY_SERVICE);
-        try {
-            for (ActivityManager.RunningServiceInfo serviceInfo : actManager.getRunningServices(Integer.MAX_VALUE)) {
-                if (serviceInfo.service.getClassName().equals(PublishService.class.getName())) {
-                    found = true;
-                }
-            }
-        } catch (NullPointerException e){}
-
-        if(!found){
-            Log.d("R5VideoViewLayout", "detectStartService:start()");
-            mContext.getCurrentActivity().startService(intent);
+        if (onSetupComplete != null) {
+            onSetupComplete.run();
         }
+    }
 
-        Log.d("R5VideoViewLayout", "detectStartService:bind()");
-        activity.bindService(intent, connection, Context.BIND_IMPORTANT);
+    /*
+     * The session starts once the shared service is bound, right away if another session already bound it.
+     */
+    private void acquireBackgroundService () {
+        Log.d("R5VideoViewLayout", "acquireBackgroundService()");
+        mIsBackgroundStartPending = true;
         mIsBackgroundBound = true;
+        BackgroundServiceRegistry.acquire(mContext, StreamingService.class, mBackgroundServiceClient);
     }
 
-    private void doPublish (String streamName, R5Stream.RecordType streamType) {
+    private void doPublish (final String streamName, final R5Stream.RecordType streamType) {
 
         Log.d("R5VideoViewLayout", "publish");
-        Boolean hasPreview = mIsPublisherSetup;
+        final Boolean hasPreview = mIsPublisherSetup;
         if (!mIsPublisherSetup) {
-            setupPublisher(false);
+            setupPublisher(false, new Runnable() {
+                @Override
+                public void run() {
+                    startPublishing(streamName, streamType, hasPreview);
+                }
+            });
+            return;
         }
 
+        startPublishing(streamName, streamType, hasPreview);
+
+    }
+
+    private void startPublishing (String streamName, R5Stream.RecordType streamType, Boolean hasPreview) {
+
         mIsPublisher = true;
 
-        if (this.getVideoView() != null) {
-            mVideoView.showDebugView(showDebug);
-        }
+        mMediaThread.postToUi(new Runnable() {
+            @Override
+            public void run() {
+                if (getVideoView() != null) {
+                    mVideoView.showDebugView(showDebug);
+                }
+            }
+        });
 
         Boolean shouldPublishVideo = (mCamera != null && mCamera.getCamera() != null && mUseVideo);
 
@@ -412,6 +894,8 @@ public class R5VideoViewLayout extends FrameLayout
             mCamera.getCamera().stopPreview();
         }
 
+        // A new stream carries the orientation in its first meta.
+        mLastMetaOrientation = -1;
         reorient();
         mStream.publish(streamName, streamType);
 
@@ -421,13 +905,21 @@ public class R5VideoViewLayout extends FrameLayout
             }
             mCamera.getCamera().startPreview();
         }
+        else if (mCamera2 != null && mUseVideo && mRequiresScaleSizeUpdate) {
+            this.updateScaleSize(mClientWidth, mClientHeight, mClientScreenWidth, mClientScreenHeight);
+        }
 
     }
 
     public void publishBound () {
 
         Log.d("R5VideoViewLayout", "doPublishBound()");
-        doPublish(mStreamName, mStreamType);
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                doPublish(mStreamName, mStreamType);
+            }
+        });
 
     }
 
@@ -435,7 +927,17 @@ public class R5VideoViewLayout extends FrameLayout
 
         Log.d("R5VideoViewLayout", "publish()");
 
+        if (!mState.transition(SessionState.CONFIGURED, SessionState.CONNECTING)) {
+            Log.w("R5VideoViewLayout", "publish:rejected (" + mState.get() + ")");
+            return;
+        }
+
         mStreamName = streamName;
+        if (!acquireSessionSlot(true)) {
+            mState.transition(SessionState.CONNECTING, SessionState.CONFIGURED);
+            return;
+        }
+        mStartupTimeline.begin();
         mStreamType = streamType;
 
         if (mStream == null) {
@@ -446,8 +948,7 @@ public class R5VideoViewLayout extends FrameLayout
         if (mEnableBackgroundStreaming) {
             Log.d("R5VideoViewLayout", "setting up bound publisher for background streaming.");
             // Set up service and offload setup.
-            mPubishIntent = new Intent(mContext.getCurrentActivity(), PublishService.class);
-            detectToStartService(mPubishIntent, mPublishServiceConnection);
+            acquireBackgroundService();
             return;
         }
 
@@ -459,10 +960,21 @@ public class R5VideoViewLayout extends FrameLayout
 
         Log.d("R5VideoViewLayout", "unpublish()");
 
-        if (mVideoView != null) {
-            mVideoView.attachStream(null);
+        if (mReconnectPolicy.isActive()) {
+            cancelReconnect();
+            return;
+        }
+
+        boolean stopping = mState.transition(SessionState.STREAMING, SessionState.STOPPING);
+        // A session still connecting is cancelled; it has no stop to wait for.
+        boolean cancelling = !stopping && mState.is(SessionState.CONNECTING);
+        if (!stopping && !cancelling && !mState.is(SessionState.CONFIGURED)) {
+            Log.w("R5VideoViewLayout", "unpublish:rejected (" + mState.get() + ")");
+            return;
         }
 
+        detachVideoView();
+
         if (mCamera != null) {
             try {
                 Camera c = mCamera.getCamera();
@@ -474,12 +986,20 @@ public class R5VideoViewLayout extends FrameLayout
             mCamera = null;
         }
 
-        if (mStream != null && mIsStreaming) {
+        if (mCamera2 != null) {
+            closeCamera2();
+            mCamera2 = null;
+        }
+
+        if (stopping && mStream != null) {
             mStream.stop();
         }
         else {
+            if (cancelling) {
+                cancelConnect();
+            }
             WritableMap map = Arguments.createMap();
-            mEventEmitter.receiveEvent(this.getId(), Events.UNPUBLISH_NOTIFICATION.toString(), map);
+            mEventDispatcher.dispatch(Events.UNPUBLISH_NOTIFICATION.toString(), map);
             Log.d("R5VideoViewLayout", "UNPUBLISH");
             cleanup();
         }
@@ -492,6 +1012,11 @@ public class R5VideoViewLayout extends FrameLayout
             return;
         }
 
+        if (mCamera2 != null) {
+            swapCamera2();
+            return;
+        }
+
         Camera updatedCamera;
 
         // NOTE: Some devices will throw errors if you have a camera open when you attempt to open another
@@ -516,11 +1041,46 @@ public class R5VideoViewLayout extends FrameLayout
 
             updatedCamera.startPreview();
             mUseBackfacingCamera = !mUseBackfacingCamera;
-            mStream.updateStreamMeta();
+            pushStreamMeta();
         }
 
     }
 
+    private void swapCamera2 () {
+
+        // NOTE: Some devices will throw errors if you have a camera open when you attempt to open another
+        closeCamera2();
+
+        final boolean useBackfacing = !mUseBackfacingCamera;
+        openCamera2(useBackfacing, new Camera2Opener.Callback() {
+            @Override
+            public void onCameraOpened(CameraDevice device, CameraCharacteristics characteristics, int sensorOrientation) {
+                if (mCamera2 == null) {
+                    // Unpublished while the device was opening.
+                    device.close();
+                    return;
+                }
+                applyCamera2Orientation(sensorOrientation, useBackfacing);
+                mCamera2.setCamera(device, characteristics);
+                mCamera2.setOrientation(mCameraOrientation);
+                mUseBackfacingCamera = useBackfacing;
+                if (mStream != null) {
+                    pushStreamMeta();
+                }
+            }
+
+            @Override
+            public void onCameraError(String message) {
+                Log.w("R5VideoViewLayout", "swapCamera:camera2:error - " + message);
+            }
+        });
+
+    }
+
+    /*
+     * Shows the video at the given fraction of the display size. The video view keeps the bounds of the
+     * layout, and is scaled within them instead of being resized (see VideoViewTransform).
+     */
     public void updateScaleSize(final int width, final int height, final int screenWidth, final int screenHeight) {
 
         mClientWidth = width;
@@ -536,22 +1096,16 @@ public class R5VideoViewLayout extends FrameLayout
             final float xscale = (float)width / (float)screenWidth;
             final float yscale = (float)height / (float)screenHeight;
 
-            final FrameLayout layout = mVideoView;
-            final DisplayMetrics displayMetrics = new DisplayMetrics();
-            mContext.getCurrentActivity().getWindowManager()
-                    .getDefaultDisplay()
-                    .getMetrics(displayMetrics);
+            // Kept up to date by the resources on configuration changes, unlike a query of the display.
+            final DisplayMetrics displayMetrics = getResources().getDisplayMetrics();
+            final int targetWidth = Math.round((displayMetrics.widthPixels * 1.0f) * xscale);
+            final int targetHeight = Math.round((displayMetrics.heightPixels * 1.0f) * yscale);
 
-            final int dwidth = displayMetrics.widthPixels;
-            final int dheight = displayMetrics.heightPixels;
-
-            layout.post(new Runnable() {
+            mMediaThread.postToUi(new Runnable() {
                 @Override
                 public void run() {
-                    ViewGroup.LayoutParams params = (ViewGroup.LayoutParams) layout.getLayoutParams();
-                    params.width = Math.round((displayMetrics.widthPixels * 1.0f) * xscale);
-                    params.height = Math.round((displayMetrics.heightPixels * 1.0f) * yscale);
-                    layout.setLayoutParams(params);
+                    mVideoTransform.setTargetSize(targetWidth, targetHeight);
+                    applyVideoScale();
                 }
             });
 
@@ -559,33 +1113,55 @@ public class R5VideoViewLayout extends FrameLayout
 
     }
 
-    public void muteAudio () {
-        if (mIsPublisher) {
-            mStream.restrainAudio(true);
+    private void applyVideoScale() {
+        if (mVideoView != null) {
+            mVideoTransform.applyScale(mVideoView, getWidth(), getHeight());
+        }
+    }
+
+    public void muteAudio () {
+        if (mIsPublisher && mStream != null) {
+            mStream.restrainAudio(true);
         }
     }
     public void unmuteAudio () {
-        if (mIsPublisher) {
+        if (mIsPublisher && mStream != null) {
             mStream.restrainAudio(false);
         }
     }
 
     public void muteVideo () {
-        if (mIsPublisher) {
+        if (mIsPublisher && mStream != null) {
             mIsRestrainingVideo = true;
             mStream.restrainVideo(true);
         }
     }
     public void unmuteVideo () {
-        if (mIsPublisher) {
+        if (mIsPublisher && mStream != null) {
             mIsRestrainingVideo = false;
+            if (mIsVideoSuspended && !mIsInBackground) {
+                // The camera was left closed on resume while video was muted; the stream resumes once it reopens.
+                resumePublisherVideo();
+                return;
+            }
             mStream.restrainVideo(false);
         }
     }
 
+    /*
+     * Applies the bitrate to the live video source as well as to the next publish session.
+     */
+    public void setPublishBitrate (int value) {
+        Log.d("R5VideoViewLayout", "setPublishBitrate(" + value + ")");
+        mBitrate = value;
+        if (mIsPublisher && mStream != null && mStream.getVideoSource() != null) {
+            mStream.getVideoSource().setBitrate(value);
+        }
+    }
+
     public void setPlaybackVolume (float value) {
         Log.d("R5VideoViewLayout", "setPlaybackVolume(" + value + ")");
-        if (mIsStreaming && !mIsPublisher) {
+        if (mState.is(SessionState.STREAMING) && !mIsPublisher) {
             if (mStream != null && mStream.audioController != null) {
                 mStream.audioController.setPlaybackGain(value);
             }
@@ -607,29 +1183,134 @@ public class R5VideoViewLayout extends FrameLayout
             mConnection = null;
         }
 
-        if (mVideoView != null) {
-            mVideoView.attachStream(null);
-//            mVideoView = null;
+        detachVideoView();
+//        mVideoView = null;
+
+        mMediaThread.cancel(mReconnectTask);
+        mReconnectPolicy.reset();
+        stopStatsSampling();
+        mStatsSampler.reset();
+        synchronized (mMetaData) {
+            mMetaData.reset();
         }
 
-        mIsStreaming = false;
+        mState.transitionTo(SessionState.CONFIGURED);
         mIsPublisherSetup = false;
+        mPublisherSetupGeneration++;
         mIsRestrainingVideo = false;
+        mIsVideoSuspended = false;
+        mIsCameraResuming = false;
+        mIsInBackground = false;
+        mVideoResumeRequestedAt = 0;
+        stopDecodeClock();
+        mIsDecodeSuspended = false;
+        mDecodeSuspendReasons &= ~SUSPEND_BACKGROUND;
+        mIsSwitchingRendition = false;
+        mPlayingStreamName = null;
+        releaseDecodeSlot();
+        releaseBackgroundService();
+        releaseSessionSlot();
+
+    }
+
+    private boolean acquireSessionSlot(boolean forPublisher) {
+
+        if (mHoldsSessionSlot) {
+            return true;
+        }
+        if (!mSessionRegistry.acquireSlot()) {
+            WritableMap map = new WritableNativeMap();
+            WritableMap statusMap = new WritableNativeMap();
+            statusMap.putInt("code", R5ConnectionEvent.ERROR.value());
+            statusMap.putString("message", "Maximum concurrent sessions reached.");
+            statusMap.putString("name", R5ConnectionEvent.ERROR.name());
+            statusMap.putString("streamName", mStreamName);
+            map.putMap("status", statusMap);
+            String eventName = forPublisher ? Events.PUBLISHER_STATUS.toString() : Events.SUBSCRIBER_STATUS.toString();
+            mEventDispatcher.dispatch(eventName, map);
+            return false;
+        }
+        mHoldsSessionSlot = true;
+        return true;
+
+    }
+
+    private void releaseSessionSlot() {
+
+        if (mHoldsSessionSlot) {
+            mHoldsSessionSlot = false;
+            mSessionRegistry.releaseSlot();
+        }
+
+    }
+
+    /*
+     * Unconditional stop used when the session is released or backgrounded mid-connect,
+     * where the guarded unpublish/unsubscribe commands would be rejected.
+     */
+    protected void teardown(boolean stopStream) {
+
+        Log.d("R5VideoViewLayout", "teardown()");
+        if (mCamera != null) {
+            try {
+                Camera c = mCamera.getCamera();
+                if (c != null) {
+                    c.stopPreview();
+                    c.release();
+                }
+            } catch (Exception e) {
+                Log.w("R5VideoViewLayout", "teardown:camera:error - " + e.getMessage());
+            }
+            mCamera = null;
+        }
+        if (mCamera2 != null) {
+            closeCamera2();
+            mCamera2 = null;
+        }
+        if (stopStream && mStream != null) {
+            mStream.stop();
+        }
+        cleanup();
 
     }
 
-    protected View.OnLayoutChangeListener setUpOrientationListener() {
-        return new View.OnLayoutChangeListener() {
+    protected void detachVideoView() {
+
+        mMediaThread.runOnUiAndWait(new Runnable() {
             @Override
-            public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft,
-                                       int oldTop, int oldRight, int oldBottom) {
-                if (mOrientationDirty) {
-                    reorient();
+            public void run() {
+                if (mVideoView != null) {
+                    mVideoView.attachStream(null);
                 }
             }
-        };
+        });
+
     }
 
+    /*
+     * Called on the media thread once per settled rotation of the display.
+     */
+    private final OrientationEngine.Listener mOrientationListener = new OrientationEngine.Listener() {
+        @Override
+        public void onRotationSettled(int rotation) {
+
+            if (!mIsPublisher) {
+                return;
+            }
+            Log.d("R5VideoViewLayout", "onRotationSettled(" + rotation + ")");
+            applyDisplayRotation(mOrigCamOrientation, mUseBackfacingCamera, rotation);
+            // A suspended camera picks the orientation up when it resumes.
+            if (mStream != null && !mIsVideoSuspended) {
+                reorient();
+            }
+
+        }
+    };
+
+    /*
+     * Off releases the camera and keeps publishing audio only. On reopens it, and only re-sends the
+     * stream meta if the orientation changed while the video was suspended.
+     */
     protected void setPublisherDisplayOn (Boolean setOn) {
 
         Log.d("R5VideoViewLayout", "setPublisherDisplayOn(" + setOn + ")");
@@ -638,7 +1319,8 @@ public class R5VideoViewLayout extends FrameLayout
                 Log.d("R5VideoViewLayout", "Stream:restraingVideo()");
                 mStream.restrainVideo(true);
             }
-			if (mCamera != null && mCamera.getCamera() != null) {
+            mIsCameraResuming = false;
+            if (mCamera != null && mCamera.getCamera() != null) {
                 Log.d("R5VideoViewLayout", "Camera:stop()");
                 try {
                     Camera c = mCamera.getCamera();
@@ -649,99 +1331,179 @@ public class R5VideoViewLayout extends FrameLayout
                     Log.w("R5VideoViewLayout", "Camera:stop:error - " + e.getMessage());
                 }
             }
-        } else if (mCamera != null && mStream != null && !mIsRestrainingVideo) {
+            if (mCamera2 != null) {
+                Log.d("R5VideoViewLayout", "Camera2:close()");
+                closeCamera2();
+            }
+            if (mCamera != null || mCamera2 != null) {
+                mIsVideoSuspended = true;
+            }
+        } else if (mIsVideoSuspended && mStream != null && !mIsRestrainingVideo) {
             Log.d("R5VideoViewLayout", "setPublisherDisplayOn:reset()");
-            int rotate = mUseBackfacingCamera ? 0 : 180;
-            int displayOrientation = (mDisplayOrientation + rotate) % 360;
-            Camera device = mUseBackfacingCamera
-                    ? openBackFacingCameraGingerbread()
-                    : openFrontFacingCameraGingerbread();
-            device.setDisplayOrientation(displayOrientation);
-
-            mCamera.setCamera(device);
-			mCamera.setOrientation(mCameraOrientation);
-
-			mStream.restrainVideo(false);
-            mStream.updateStreamMeta();
-            device.startPreview();
+            resumePublisherVideo();
         } else {
             Log.d("R5VideoViewLayout", "setPublisherDisplayOn:bypassed");
         }
 
-        if (mBackgroundPublishService != null) {
-            mBackgroundPublishService.setDisplayOn(setOn);
+        if (mBackgroundService != null) {
+            mBackgroundService.setSessionInBackground(this, true, !setOn);
         }
 
     }
 
-    protected void reorient() {
+    /*
+     * Queued by onHostResume ahead of the rest of the resume, so that a camera2 device opens alongside it
+     * instead of after it. Runs on the media thread, as the camera state it reads belongs to it.
+     */
+    private void prewarmPublisherCamera () {
 
-        if (mCamera != null) {
-            int rotate = mUseBackfacingCamera ? 0 : 180;
-            int displayOrientation = (mDisplayOrientation + rotate) % 360;
-            mCamera.setOrientation(mCameraOrientation);
-            mCamera.getCamera().setDisplayOrientation(displayOrientation);
-            mStream.updateStreamMeta();
+        if (!mIsVideoSuspended || mIsRestrainingVideo || !mEnableBackgroundStreaming) {
+            return;
+        }
+        mVideoResumeRequestedAt = System.nanoTime();
+        if (mCamera2 != null && !mIsCameraResuming) {
+            Log.d("R5VideoViewLayout", "prewarmPublisherCamera()");
+            openResumedCamera2();
         }
-        mOrientationDirty = false;
 
     }
 
-    protected void updateDeviceOrientationOnLayoutChange() {
+    private void resumePublisherVideo () {
 
-        int degrees = 0;
-        int rotation = mContext.getCurrentActivity().getWindowManager().getDefaultDisplay().getRotation();
+        if (mVideoResumeRequestedAt == 0) {
+            mVideoResumeRequestedAt = System.nanoTime();
+        }
 
-        switch (rotation) {
-            case Surface.ROTATION_0: degrees = 0; break;
-            case Surface.ROTATION_90: degrees = 270; break;
-            case Surface.ROTATION_180: degrees = 180; break;
-            case Surface.ROTATION_270: degrees = 90; break;
+        if (mCamera2 != null) {
+            if (!mIsCameraResuming) {
+                openResumedCamera2();
+            }
+            return;
         }
 
-        mDisplayOrientation = (mOrigCamOrientation + degrees) % 360;
-        mCameraOrientation = rotation % 2 != 0 ? mDisplayOrientation - 180 : mDisplayOrientation;
-        if (mUseBackfacingCamera && (rotation % 2 != 0)) {
-            mCameraOrientation += 180;
+        if (mCamera == null) {
+            return;
+        }
+        int rotate = mUseBackfacingCamera ? 0 : 180;
+        int displayOrientation = (mDisplayOrientation + rotate) % 360;
+        Camera device = mUseBackfacingCamera
+                ? openBackFacingCameraGingerbread()
+                : openFrontFacingCameraGingerbread();
+        if (device == null) {
+            Log.w("R5VideoViewLayout", "resumePublisherVideo:error - camera unavailable.");
+            return;
         }
-        mOrientationDirty = true;
+        mVideoResumeCameraOpenedAt = System.nanoTime();
+        device.setDisplayOrientation(displayOrientation);
+        Camera.Parameters params = device.getParameters();
+        params.setRecordingHint(true);
+        device.setParameters(params);
+
+        mCamera.setCamera(device);
+        mCamera.setOrientation(mCameraOrientation);
+        device.startPreview();
+        onPublisherVideoResumed();
+
+    }
+
+    private void openResumedCamera2 () {
+
+        mIsCameraResuming = true;
+        openCamera2(mUseBackfacingCamera, new Camera2Opener.Callback() {
+            @Override
+            public void onCameraOpened(CameraDevice device, CameraCharacteristics characteristics, int sensorOrientation) {
+                if (!mIsCameraResuming || mCamera2 == null || mStream == null) {
+                    device.close();
+                    return;
+                }
+                mIsCameraResuming = false;
+                mVideoResumeCameraOpenedAt = System.nanoTime();
+                applyCamera2Orientation(sensorOrientation, mUseBackfacingCamera);
+                mCamera2.setCamera(device, characteristics);
+                mCamera2.setOrientation(mCameraOrientation);
+                onPublisherVideoResumed();
+            }
+
+            @Override
+            public void onCameraError(String message) {
+                mIsCameraResuming = false;
+                Log.w("R5VideoViewLayout", "setPublisherDisplayOn:camera2:error - " + message);
+            }
+        });
 
     }
 
-    protected void applyDeviceRotation () {
+    private void onPublisherVideoResumed () {
 
-        int degrees = 0;
-        int rotation = mContext.getCurrentActivity().getWindowManager().getDefaultDisplay().getRotation();
+        mIsVideoSuspended = false;
+        boolean metaUpdated = mCameraOrientation != mLastMetaOrientation;
+        mStream.restrainVideo(false);
+        if (metaUpdated) {
+            pushStreamMeta();
+        }
 
-        switch (rotation) {
-            case Surface.ROTATION_0: degrees = 0; break;
-            case Surface.ROTATION_90: degrees = 90; break;
-            case Surface.ROTATION_180: degrees = 180; break;
-            case Surface.ROTATION_270: degrees = 270; break;
+        long now = System.nanoTime();
+        long requestedAt = mVideoResumeRequestedAt;
+        mVideoResumeRequestedAt = 0;
+        if (requestedAt == 0) {
+            return;
         }
+        long elapsed = (now - requestedAt) / 1000000L;
+        long cameraOpen = (mVideoResumeCameraOpenedAt - requestedAt) / 1000000L;
+        mLastVideoResume = elapsed;
+        mMaxVideoResume = Math.max(mMaxVideoResume, elapsed);
+        mTotalVideoResume += elapsed;
+        mVideoResumeCount++;
 
-        mCameraOrientation += degrees;
-        mCameraOrientation = mCameraOrientation % 360;
-        mOrigCamOrientation = 270;
+        WritableMap map = new WritableNativeMap();
+        map.putString("streamName", mStreamName);
+        map.putDouble("elapsed", elapsed);
+        map.putDouble("cameraOpen", cameraOpen);
+        map.putBoolean("metaUpdated", metaUpdated);
+        map.putInt("count", mVideoResumeCount);
+        map.putDouble("mean", (double)mTotalVideoResume / mVideoResumeCount);
+        map.putDouble("max", mMaxVideoResume);
+        mEventDispatcher.dispatch(Events.VIDEO_RESUME.toString(), map);
 
     }
 
-    protected void applyInverseDeviceRotation(){
-
-        int degrees = 0;
-        int rotation = mContext.getCurrentActivity().getWindowManager().getDefaultDisplay().getRotation();
+    /*
+     * Applies the current orientation to the camera, and only re-sends the stream meta if it changed
+     * since it was last sent, as each update makes subscribers re-layout.
+     */
+    protected void reorient() {
 
-        switch (rotation) {
-            case Surface.ROTATION_0: degrees = 0; break;
-            case Surface.ROTATION_90: degrees = 270; break;
-            case Surface.ROTATION_180: degrees = 180; break;
-            case Surface.ROTATION_270: degrees = 90; break;
+        if (mCamera != null && mCamera.getCamera() != null) {
+            int rotate = mUseBackfacingCamera ? 0 : 180;
+            int displayOrientation = (mDisplayOrientation + rotate) % 360;
+            mCamera.setOrientation(mCameraOrientation);
+            mCamera.getCamera().setDisplayOrientation(displayOrientation);
+        }
+        else if (mCamera2 != null) {
+            mCamera2.setOrientation(mCameraOrientation);
+        }
+        else {
+            return;
+        }
+        if (mCameraOrientation != mLastMetaOrientation) {
+            pushStreamMeta();
         }
 
-        mCameraOrientation += degrees;
-        mCameraOrientation = mCameraOrientation % 360;
-        mOrigCamOrientation = 90;
+    }
+
+    private void pushStreamMeta() {
+        mStream.updateStreamMeta();
+        mLastMetaOrientation = mCameraOrientation;
+        mMetaUpdateCount++;
+    }
 
+    /*
+     * Keeps the sensor orientation of the open camera, for rotations that settle while it stays open.
+     */
+    protected void applyDisplayRotation(int sensorOrientation, boolean backfacing, int rotation) {
+        mOrigCamOrientation = sensorOrientation;
+        mDisplayOrientation = OrientationEngine.getDisplayOrientation(sensorOrientation, rotation);
+        mCameraOrientation = OrientationEngine.getCameraOrientation(sensorOrientation, backfacing, rotation);
     }
 
     protected Camera openFrontFacingCameraGingerbread() {
@@ -755,8 +1517,7 @@ public class R5VideoViewLayout extends FrameLayout
             if (cameraInfo.facing == Camera.CameraInfo.CAMERA_FACING_FRONT) {
                 try {
                     cam = Camera.open(camIdx);
-                    mCameraOrientation = cameraInfo.orientation;
-                    applyDeviceRotation();
+                    applyDisplayRotation(cameraInfo.orientation, false, mOrientationEngine.getDisplayRotation());
                     break;
                 } catch (RuntimeException e) {
                     e.printStackTrace();
@@ -779,8 +1540,7 @@ public class R5VideoViewLayout extends FrameLayout
             if (cameraInfo.facing == Camera.CameraInfo.CAMERA_FACING_BACK) {
                 try {
                     cam = Camera.open(camIdx);
-                    mCameraOrientation = cameraInfo.orientation;
-                    applyInverseDeviceRotation();
+                    applyDisplayRotation(cameraInfo.orientation, true, mOrientationEngine.getDisplayRotation());
                     break;
                 } catch (RuntimeException e) {
                     e.printStackTrace();
@@ -792,191 +1552,989 @@ public class R5VideoViewLayout extends FrameLayout
 
     }
 
-    protected void setSubscriberDisplayOn (Boolean setOn) {
+    protected boolean useCamera2 () {
+        return mUseCamera2 && Camera2Opener.isSupported();
+    }
 
-        Log.d("R5VideoViewLayout", "setSubscriberDisplayOn(" + setOn + ")");
-        if (!setOn) {
-            if (mStream != null) {
-                Log.d("R5VideoViewLayout", "Stream:deactivate_display()");
-                mStream.deactivate_display();
+    /*
+     * The device is delivered on the UI thread and handed to the media thread from there, so that a device
+     * opening as the session is released is still closed once the media thread has quit.
+     */
+    protected void openCamera2 (boolean backfacing, final Camera2Opener.Callback callback) {
+
+        Camera2Opener.open(mContext, backfacing, mMediaThread.getUiHandler(), new Camera2Opener.Callback() {
+            @Override
+            public void onCameraOpened(final CameraDevice device, final CameraCharacteristics characteristics, final int sensorOrientation) {
+                boolean posted = mMediaThread.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onCameraOpened(device, characteristics, sensorOrientation);
+                    }
+                });
+                if (!posted) {
+                    device.close();
+                }
             }
-        } else if (mStream != null) {
-            Log.d("R5VideoViewLayout", "Stream:activate_display()");
-            mStream.activate_display();
 
-        }
+            @Override
+            public void onCameraError(final String message) {
+                mMediaThread.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        callback.onCameraError(message);
+                    }
+                });
+            }
+        });
+
+    }
 
-        if (mBackgroundSubscribeService != null) {
-            mBackgroundSubscribeService.setDisplayOn(setOn);
+    protected void closeCamera2 () {
+
+        if (mCamera2 == null || mCamera2.getCamera() == null) {
+            return;
+        }
+        try {
+            mCamera2.getCamera().close();
+        } catch (Exception e) {
+            Log.w("R5VideoViewLayout", "Camera2:close:error - " + e.getMessage());
         }
 
     }
 
-    protected void onConfigured(String key) {
+    protected void applyCamera2Orientation (int sensorOrientation, boolean backfacing) {
 
-        Log.d("R5VideoViewLayout", "onConfigured()");
-        WritableMap map = new WritableNativeMap();
-        map.putString("key", key);
-        mEventEmitter.receiveEvent(this.getId(), "onConfigured", map);
-    }
+        // SENSOR_ORIENTATION is the camera2 counterpart of the CameraInfo.orientation used by the legacy opens.
+        applyDisplayRotation(sensorOrientation, backfacing, mOrientationEngine.getDisplayRotation());
 
-    protected void updateOrientation(int value) {
-        // subscriber only.
-        value += 90;
-        if (this.getVideoView() != null) {
-            this.getVideoView().setStreamRotation(value);
-        }
     }
 
-    public void sendToBackground () {
+    /*
+     * Off stops rendering and detaches the stream from the view, so that only audio is played.
+     * On attaches it again, switching back from the background rendition first if one is playing.
+     */
+    protected void setSubscriberDisplayOn (Boolean setOn) {
 
-        Log.d("R5VideoViewLayout", "sendToBackground()");
-        if (!mEnableBackgroundStreaming) {
-            Log.d("R5VideoViewLayout", "sendToBackground:shutdown");
-            if (mIsPublisher) {
-                this.unpublish();
-            } else {
-                this.unsubscribe();
-            }
-            return;
+        Log.d("R5VideoViewLayout", "setSubscriberDisplayOn(" + setOn + ")");
+        if (!setOn) {
+            suspendDecode(SUSPEND_BACKGROUND);
+        } else {
+            resumeDecode(SUSPEND_BACKGROUND);
         }
 
-        if (mIsPublisher && mEnableBackgroundStreaming) {
-            Log.d("R5VideoViewLayout", "sendToBackground:publiserPause");
-            this.setPublisherDisplayOn(false);
-        } else if (mIsStreaming && mEnableBackgroundStreaming) {
-            Log.d("R5VideoViewLayout", "sendToBackground:subscriberPause");
-            this.setSubscriberDisplayOn(false);
+        if (mBackgroundService != null) {
+            mBackgroundService.setSessionInBackground(this, false, !setOn);
         }
 
     }
 
-    public void bringToForeground () {
+    /*
+     * Video stays suspended for as long as any of the SUSPEND_ reasons holds.
+     */
+    private void suspendDecode (int reason) {
 
-        Log.d("R5VideoViewLayout", "bringToForeground()");
-        if (mIsPublisher && mEnableBackgroundStreaming) {
-            Log.d("R5VideoViewLayout", "sendToBackground:publiserResume");
-            this.setPublisherDisplayOn(true);
-        } else if (mIsStreaming && mEnableBackgroundStreaming) {
-            Log.d("R5VideoViewLayout", "sendToBackground:publiserResume");
-            this.setSubscriberDisplayOn(true);
+        mDecodeSuspendReasons |= reason;
+        if (mStream == null || mIsDecodeSuspended) {
+            return;
         }
+        Log.d("R5VideoViewLayout", "Stream:deactivate_display()");
+        mStream.deactivate_display();
+        detachVideoView();
+        mIsDecodeSuspended = true;
+        stopDecodeClock();
 
     }
 
-    public void onMetaData(String metadata) {
+    private void resumeDecode (int reason) {
 
-        String[] props = metadata.split(";");
-        for (String s : props) {
-            String[] kv = s.split("=");
-            if (kv[0].equalsIgnoreCase("orientation")) {
-                updateOrientation(Integer.parseInt(kv[1]));
+        mDecodeSuspendReasons &= ~reason;
+        if (mDecodeSuspendReasons != 0 || !mIsDecodeSuspended) {
+            return;
+        }
+        mIsDecodeSuspended = false;
+        if (mReconnectPolicy.isActive() || mStream == null) {
+            // The next reconnect attempt subscribes to the stream itself, with video.
+            Log.d("R5VideoViewLayout", "resumeDecode:deferred");
+        } else if (mPlayingStreamName != null && !mPlayingStreamName.equals(mStreamName)) {
+            if (mState.is(SessionState.CONNECTING)) {
+                // The switch to the background rendition is still in flight.
+                restartRendition(mStreamName, true);
+            } else {
+                switchRendition(mStreamName, true);
+            }
+        } else {
+            Log.d("R5VideoViewLayout", "Stream:activate_display()");
+            final R5Stream stream = mStream;
+            mMediaThread.runOnUiAndWait(new Runnable() {
+                @Override
+                public void run() {
+                    if (mVideoView != null) {
+                        mVideoView.attachStream(stream);
+                    }
+                }
+            });
+            mStream.activate_display();
+            if (mState.is(SessionState.STREAMING)) {
+                startDecodeClock();
             }
         }
-        WritableMap map = new WritableNativeMap();
-        map.putString("metadata", metadata);
-        mEventEmitter.receiveEvent(this.getId(), Events.METADATA.toString(), map);
 
     }
 
-    @Override
-    public void onConnectionEvent(R5ConnectionEvent event) {
+    private synchronized void startDecodeClock () {
+        if (mDecodeActiveSince == 0 && !mIsPublisher && mPlaybackVideo) {
+            mDecodeActiveSince = SystemClock.elapsedRealtime();
+        }
+    }
 
-        Log.d("R5VideoViewLayout", ":onConnectionEvent " + event.name());
-        WritableMap map = new WritableNativeMap();
-        WritableMap statusMap = new WritableNativeMap();
-        statusMap.putInt("code", event.value());
-        statusMap.putString("message", event.message);
-        statusMap.putString("name", event.name());
-        statusMap.putString("streamName", mStreamName);
-        map.putMap("status", statusMap);
-        if (mIsPublisher) {
-            mEventEmitter.receiveEvent(this.getId(), Events.PUBLISHER_STATUS.toString(), map);
+    private synchronized void stopDecodeClock () {
+        if (mDecodeActiveSince != 0) {
+            mDecodeActiveTime += SystemClock.elapsedRealtime() - mDecodeActiveSince;
+            mDecodeActiveSince = 0;
         }
-        else {
-            mEventEmitter.receiveEvent(this.getId(), Events.SUBSCRIBER_STATUS.toString(), map);
+    }
+
+    /**
+     * @return ms the view has spent receiving video to render, across its sessions.
+     */
+    public synchronized long getDecodeActiveTime () {
+        long time = mDecodeActiveTime;
+        if (mDecodeActiveSince != 0) {
+            time += SystemClock.elapsedRealtime() - mDecodeActiveSince;
         }
+        return time;
+    }
 
-        if (event == R5ConnectionEvent.START_STREAMING) {
-            mIsStreaming = true;
+    private final DecoderBudget.Client mDecoderClient = new DecoderBudget.Client() {
+        @Override
+        public long getDecodePriority() {
+            // Read from the media thread of whichever session rebalances the budget.
+            return mDecodePrioritySnapshot;
         }
-        else if (event == R5ConnectionEvent.DISCONNECTED && mIsStreaming) {
-            WritableMap evt = new WritableNativeMap();
-            if (mIsPublisher) {
-                mEventEmitter.receiveEvent(this.getId(), Events.UNPUBLISH_NOTIFICATION.toString(), evt);
-            }
-            else {
-                mEventEmitter.receiveEvent(this.getId(), Events.UNSUBSCRIBE_NOTIFICATION.toString(), evt);
-            }
-            Log.d("R5VideoViewLayout", "DISCONNECT");
-            cleanup();
-            mIsStreaming = false;
+
+        @Override
+        public void onDecodeSlotChanged(boolean granted) {
+            runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    // Read again, the grant may have changed since this was posted.
+                    if (mHoldsDecodeSlotRequest) {
+                        applyDecodeSlot(mSessionRegistry.getDecoderBudget().isGranted(mDecoderClient));
+                    }
+                }
+            });
         }
+    };
 
-    }
+    /*
+     * A subscriber denied a slot plays audio only until one is handed to it.
+     */
+    private void requestDecodeSlot () {
 
-    @Override
-    public void onHostResume() {
-        Activity activity = mContext.getCurrentActivity();
-        if (mLayoutListener == null) {
-            mLayoutListener = setUpOrientationListener();
+        DecoderBudget budget = mSessionRegistry.getDecoderBudget();
+        mHoldsDecodeSlotRequest = true;
+        if (budget.request(mDecoderClient)) {
+            if (budget.getCapacity() != DecoderBudget.UNLIMITED) {
+                emitDecoderSlot("admitted", true);
+            }
+            return;
         }
-        this.addOnLayoutChangeListener(mLayoutListener);
+        Log.d("R5VideoViewLayout", "requestDecodeSlot:denied");
+        mDecodeSuspendReasons |= SUSPEND_BUDGET;
+        emitDecoderSlot("denied", false);
 
-        Log.d("R5VideoViewLayout", "onHostResume()");
-        bringToForeground();
     }
 
-    @Override
-    public void onHostPause() {
-        if (mLayoutListener != null) {
-            this.removeOnLayoutChangeListener(mLayoutListener);
-        }
-        Log.d("R5VideoViewLayout", "onHostPause()");
-        sendToBackground();
-    }
+    private void applyDecodeSlot (boolean granted) {
 
-    @Override
-    public void onHostDestroy() {
-        Log.d("R5VideoViewLayout", "onHostDestroy()");
-        Activity activity = mContext.getCurrentActivity();
-        if (mPubishIntent != null && mIsBackgroundBound) {
-            this.setPublisherDisplayOn(false);
-            activity.unbindService(mPublishServiceConnection);
-            activity.stopService(mPubishIntent);
-            mIsBackgroundBound = false;
-        } else if (mSubscribeIntent != null && mIsBackgroundBound) {
-            this.setSubscriberDisplayOn(false);
-            activity.unbindService(mSubscribeServiceConnection);
-            activity.stopService(mSubscribeIntent);
-            mIsBackgroundBound = false;
+        boolean suspended = (mDecodeSuspendReasons & SUSPEND_BUDGET) != 0;
+        if (granted != suspended) {
+            return;
         }
-    }
+        Log.d("R5VideoViewLayout", "applyDecodeSlot(" + granted + ")");
+        if (granted) {
+            resumeDecode(SUSPEND_BUDGET);
+        } else {
+            suspendDecode(SUSPEND_BUDGET);
+        }
+        emitDecoderSlot(granted ? "admitted" : "evicted", granted);
 
-    @Override
-    public void onConfigurationChanged(Configuration config) {
-        updateDeviceOrientationOnLayoutChange();
     }
 
-    public void updateShowDebug(boolean show) {
-        this.showDebug = show;
-        if (this.getVideoView() != null) {
-            this.getVideoView().showDebugView(this.showDebug);
+    private void releaseDecodeSlot () {
+
+        if (!mHoldsDecodeSlotRequest) {
+            return;
         }
+        mHoldsDecodeSlotRequest = false;
+        mDecodeSuspendReasons &= ~SUSPEND_BUDGET;
+        mSessionRegistry.getDecoderBudget().release(mDecoderClient);
+
     }
 
-    public void updateScaleMode(int mode) {
-        this.scaleMode = mode;
-        if (mStream != null) {
-            mStream.setScaleMode(mode);
+    private void rebalanceDecoderBudget () {
+        if (mHoldsDecodeSlotRequest) {
+            mSessionRegistry.getDecoderBudget().update();
         }
     }
 
-    public void updateLogLevel(int level) {
-        this.logLevel = level;
+    private void emitDecoderSlot (String status, boolean granted) {
+
+        DecoderBudget budget = mSessionRegistry.getDecoderBudget();
+        WritableMap map = new WritableNativeMap();
+        map.putString("streamName", mStreamName);
+        map.putString("status", status);
+        map.putBoolean("granted", granted);
+        map.putInt("capacity", budget.getCapacity());
+        map.putInt("inUse", budget.getGrantedCount());
+        map.putInt("clients", budget.getClientCount());
+        mEventDispatcher.dispatch(Events.DECODER_SLOT.toString(), map);
+
+    }
+
+    /*
+     * Ranks the layout for the decoder budget from state owned by the UI thread, on which it is called whenever
+     * the size, window focus, visibility or decodePriority prop changes.
+     */
+    private void updateDecodePrioritySnapshot () {
+        // The app's priority first, then tiles that can be seen, then the largest.
+        long area = Math.min((long) getWidth() * getHeight(), 0xFFFFFFFFL);
+        mDecodePrioritySnapshot = ((long) mDecodePriority << 34)
+                + (hasWindowFocus() ? 1L << 33 : 0)
+                + (mVisibilityTracker.isVisible() ? 1L << 32 : 0)
+                + area;
+    }
+
+    private final VisibilityTracker.Listener mVisibilityListener = new VisibilityTracker.Listener() {
+        @Override
+        public void onVisibilityChanged(final boolean visible) {
+            Log.d("R5VideoViewLayout", "onVisibilityChanged(" + visible + ")");
+            updateDecodePrioritySnapshot();
+            runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    if (visible) {
+                        resumeDecode(SUSPEND_HIDDEN);
+                    } else if (!mIsPublisher) {
+                        suspendDecode(SUSPEND_HIDDEN);
+                    }
+                    rebalanceDecoderBudget();
+                    WritableMap map = new WritableNativeMap();
+                    map.putBoolean("visible", visible);
+                    map.putBoolean("decodeSuspended", mIsDecodeSuspended);
+                    map.putDouble("decodeActiveTime", getDecodeActiveTime());
+                    mEventDispatcher.dispatch(Events.VISIBILITY_CHANGED.toString(), map);
+                }
+            });
+        }
+    };
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mVisibilityTracker.setAttached(true);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        mVisibilityTracker.setAttached(false);
+        super.onDetachedFromWindow();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        mVisibilityTracker.setWindowFocused(hasWindowFocus);
+        updateDecodePrioritySnapshot();
+        postDecodePriorityUpdate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateDecodePrioritySnapshot();
+        postDecodePriorityUpdate();
+        if (mRequiresScaleSizeUpdate && mVideoView != null) {
+            // The scale of the video view is relative to the bounds of the layout.
+            mVideoTransform.applyScale(mVideoView, w, h);
+        }
+    }
+
+    private void postDecodePriorityUpdate () {
+        if (!mHoldsDecodeSlotRequest) {
+            return;
+        }
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                rebalanceDecoderBudget();
+            }
+        });
+    }
+
+    /*
+     * Replaces the playing stream with another rendition of it, e.g. an audio-only one while in the background.
+     * The session goes through CONNECTING again and is STREAMING once the rendition starts.
+     */
+    private boolean switchRendition (String streamName, boolean withVideo) {
+
+        if (!mState.transition(SessionState.STREAMING, SessionState.CONNECTING)) {
+            Log.w("R5VideoViewLayout", "switchRendition:rejected (" + mState.get() + ")");
+            return false;
+        }
+        Log.d("R5VideoViewLayout", "switchRendition(" + streamName + ")");
+        restartRendition(streamName, withVideo);
+        return true;
+
+    }
+
+    private void restartRendition (String streamName, boolean withVideo) {
+
+        R5Stream previous = mStream;
+        releaseStreamForReconnect();
+        if (previous != null) {
+            try {
+                previous.stop();
+            } catch (Exception e) {
+                Log.w("R5VideoViewLayout", "switchRendition:stop:error - " + e.getMessage());
+            }
+        }
+
+        mIsSwitchingRendition = true;
+        establishConnection(mConfiguration);
+        if (withVideo) {
+            doSubscribe(streamName, showDebug);
+        } else {
+            playWithoutVideo(streamName);
+        }
+
+    }
+
+    private void playWithoutVideo (String streamName) {
+        mPlayingStreamName = streamName;
+        mStream.play(streamName);
+    }
+
+    protected void onConfigured(String key) {
+
+        Log.d("R5VideoViewLayout", "onConfigured()");
+        mConfigurationKey = key;
+        WritableMap map = new WritableNativeMap();
+        map.putString("key", key);
+        mEventDispatcher.dispatch(Events.CONFIGURED.toString(), map);
+    }
+
+    protected void updateOrientation(int value) {
+        // subscriber only.
+        final int rotation = value + 90;
+        mMediaThread.postToUi(new Runnable() {
+            @Override
+            public void run() {
+                if (getVideoView() != null) {
+                    mVideoTransform.applyRotation(getVideoView(), rotation);
+                }
+            }
+        });
+    }
+
+    public void sendToBackground () {
+
+        Log.d("R5VideoViewLayout", "sendToBackground()");
+        if (!mEnableBackgroundStreaming) {
+            Log.d("R5VideoViewLayout", "sendToBackground:shutdown");
+            if (mState.is(SessionState.CONNECTING)) {
+                teardown(true);
+            } else if (mIsPublisher) {
+                this.unpublish();
+            } else {
+                this.unsubscribe();
+            }
+            return;
+        }
+
+        mIsInBackground = true;
+        if (mIsPublisher && mEnableBackgroundStreaming) {
+            Log.d("R5VideoViewLayout", "sendToBackground:publiserPause");
+            this.setPublisherDisplayOn(false);
+        } else if (mState.is(SessionState.STREAMING) && mEnableBackgroundStreaming) {
+            Log.d("R5VideoViewLayout", "sendToBackground:subscriberPause");
+            this.setSubscriberDisplayOn(false);
+            if (mBackgroundStreamName != null && !mBackgroundStreamName.equals(mStreamName)) {
+                switchRendition(mBackgroundStreamName, false);
+            }
+        }
+
+    }
+
+    public void bringToForeground () {
+
+        Log.d("R5VideoViewLayout", "bringToForeground()");
+        mIsInBackground = false;
+        if (mIsPublisher && mEnableBackgroundStreaming) {
+            Log.d("R5VideoViewLayout", "sendToBackground:publiserResume");
+            this.setPublisherDisplayOn(true);
+        } else if ((mDecodeSuspendReasons & SUSPEND_BACKGROUND) != 0 && mEnableBackgroundStreaming) {
+            Log.d("R5VideoViewLayout", "sendToBackground:publiserResume");
+            this.setSubscriberDisplayOn(true);
+        }
+
+    }
+
+    @Override
+    public void onMetaData(String metadata) {
+
+        WritableMap map;
+        synchronized (mMetaData) {
+            int changes = mMetaData.parse(metadata);
+            if (changes == 0) {
+                // Repeated packet, nothing to forward.
+                return;
+            }
+
+            map = new WritableNativeMap();
+            map.putString("metadata", metadata);
+            if ((changes & StreamMetaData.CHANGED_ORIENTATION) != 0) {
+                updateOrientation(mMetaData.getOrientation());
+                map.putInt("orientation", mMetaData.getOrientation());
+            }
+            if ((changes & StreamMetaData.CHANGED_WIDTH) != 0) {
+                map.putInt("width", mMetaData.getWidth());
+            }
+            if ((changes & StreamMetaData.CHANGED_HEIGHT) != 0) {
+                map.putInt("height", mMetaData.getHeight());
+            }
+            if ((changes & StreamMetaData.CHANGED_CUSTOM) != 0) {
+                WritableMap changed = new WritableNativeMap();
+                for (int i = 0; i < mMetaData.getCustomCount(); i++) {
+                    if (mMetaData.isCustomChanged(i)) {
+                        changed.putString(mMetaData.getCustomKey(i), mMetaData.getCustomValue(i));
+                    }
+                }
+                for (String key : mMetaData.getRemovedKeys()) {
+                    changed.putNull(key);
+                }
+                map.putMap("changed", changed);
+            }
+        }
+        mEventDispatcher.dispatch(Events.METADATA.toString(), map);
+
+    }
+
+    @Override
+    public void onConnectionEvent(final R5ConnectionEvent event) {
+
+        Log.d("R5VideoViewLayout", ":onConnectionEvent " + event.name());
+        WritableMap map = EventUtil.writeStatusEvent(new WritableNativeMap(), new WritableNativeMap(), event, mStreamName);
+        String eventName = mIsPublisher ? Events.PUBLISHER_STATUS.toString() : Events.SUBSCRIBER_STATUS.toString();
+        mEventDispatcher.dispatch(eventName, getStatusCoalescingKey(eventName, event), map);
+
+        markStartupPhase(event);
+
+        final R5Stream source = mStream;
+        if (event == R5ConnectionEvent.START_STREAMING) {
+            if (mState.transition(SessionState.CONNECTING, SessionState.STREAMING)) {
+                runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onStreamingStarted();
+                    }
+                });
+            }
+        }
+        else if ((event == R5ConnectionEvent.DISCONNECTED && mState.get().isActive())
+                || ((event == R5ConnectionEvent.ERROR || event == R5ConnectionEvent.TIMEOUT) && mState.is(SessionState.CONNECTING))) {
+            // Listener callbacks arrive on SDK threads; teardown is serialized with the session commands.
+            runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    handleDisconnect(event, source);
+                }
+            });
+        }
+
+    }
+
+    private void markStartupPhase(R5ConnectionEvent event) {
+
+        int phase;
+        if (event == R5ConnectionEvent.CONNECTED) {
+            phase = StartupTimeline.PHASE_CONNECTED;
+        }
+        else if (event == R5ConnectionEvent.START_STREAMING) {
+            phase = StartupTimeline.PHASE_STREAMING;
+        }
+        else if (event == R5ConnectionEvent.VIDEO_RENDER_START) {
+            phase = StartupTimeline.PHASE_FIRST_FRAME;
+        }
+        else {
+            return;
+        }
+
+        if (mStartupTimeline.mark(phase) < 0) {
+            return;
+        }
+
+        // A publisher is live once streaming starts, a subscriber once its first frame is rendered.
+        int lastPhase = (mIsPublisher || !mPlaybackVideo)
+                ? StartupTimeline.PHASE_STREAMING
+                : StartupTimeline.PHASE_FIRST_FRAME;
+        if (phase == lastPhase) {
+            Log.d("R5VideoViewLayout", "startup:complete (" + mStartupTimeline.getElapsed(phase) + "ms)");
+            emitStartupTiming();
+        }
+
+    }
+
+    public WritableMap getStartupTiming() {
+
+        WritableMap map = new WritableNativeMap();
+        map.putString("streamName", mStreamName);
+        map.putBoolean("publisher", mIsPublisher);
+
+        WritableMap current = new WritableNativeMap();
+        WritableMap histograms = new WritableNativeMap();
+        for (int phase = StartupTimeline.PHASE_CONNECTED; phase < StartupTimeline.PHASE_COUNT; phase++) {
+            String name = StartupTimeline.PHASE_NAMES[phase];
+            current.putDouble(name, mStartupTimeline.getElapsed(phase));
+
+            WritableMap histogram = new WritableNativeMap();
+            histogram.putInt("count", mStartupTimeline.getCount(phase));
+            histogram.putDouble("min", mStartupTimeline.getMin(phase));
+            histogram.putDouble("max", mStartupTimeline.getMax(phase));
+            histogram.putDouble("mean", mStartupTimeline.getMean(phase));
+            WritableArray buckets = new WritableNativeArray();
+            for (int i = 0; i <= StartupTimeline.BUCKET_BOUNDS.length; i++) {
+                buckets.pushInt(mStartupTimeline.getBucket(phase, i));
+            }
+            histogram.putArray("buckets", buckets);
+            histograms.putMap(name, histogram);
+        }
+
+        WritableArray bounds = new WritableNativeArray();
+        for (long bound : StartupTimeline.BUCKET_BOUNDS) {
+            bounds.pushDouble(bound);
+        }
+
+        map.putMap("timing", current);
+        map.putMap("histograms", histograms);
+        map.putArray("bucketBounds", bounds);
+        return map;
+
+    }
+
+    public void emitStartupTiming() {
+        mEventDispatcher.dispatch(Events.STARTUP_TIMING.toString(), getStartupTiming());
+    }
+
+    private void onStreamingStarted() {
+
+        mIsSwitchingRendition = false;
+        if (mReconnectPolicy.isActive()) {
+            Log.d("R5VideoViewLayout", "reconnect:success");
+            emitReconnectStatus("reconnected", 0);
+            mReconnectPolicy.reset();
+        }
+        if (!mIsDecodeSuspended) {
+            startDecodeClock();
+        }
+        startStatsSampling();
+
+    }
+
+    private void startStatsSampling() {
+
+        mMediaThread.cancel(mStatsTask);
+        if (mStatsInterval > 0 && mState.is(SessionState.STREAMING)) {
+            mMediaThread.postDelayed(mStatsTask, mStatsInterval);
+        }
+
+    }
+
+    private void stopStatsSampling() {
+        mMediaThread.cancel(mStatsTask);
+    }
+
+    private final Runnable mStatsTask = new Runnable() {
+        @Override
+        public void run() {
+
+            if (mStream == null || mStatsInterval <= 0 || !mState.is(SessionState.STREAMING)) {
+                return;
+            }
+
+            long now = SystemClock.elapsedRealtime();
+            try {
+                mStatsSampler.sample(mStream.getStats(), mIsPublisher, now);
+            } catch (Exception e) {
+                Log.w("R5VideoViewLayout", "stats:error - " + e.getMessage());
+            }
+
+            // Sampling and reporting are decoupled so that a fine history does not flood the bridge.
+            if (now - mLastStatsReport >= mStatsReportInterval) {
+                mLastStatsReport = now;
+                mEventDispatcher.dispatch(Events.STREAM_STATS.toString(), getStreamStats());
+            }
+
+            mMediaThread.postDelayed(this, mStatsInterval);
+
+        }
+    };
+
+    /**
+     * Latest sample only, flat, for frequent polling.
+     */
+    public WritableMap getLiveStats() {
+
+        WritableMap map = new WritableNativeMap();
+        map.putString("state", mState.get().name());
+        map.putInt("samples", mStatsSampler.getSize());
+        map.putDouble("decodeActiveTime", getDecodeActiveTime());
+        for (int field = 0; field < StatsSampler.FIELD_COUNT; field++) {
+            map.putDouble(StatsSampler.FIELD_NAMES[field], mStatsSampler.getLatest(field));
+        }
+        return map;
+
+    }
+
+    /*
+     * The values of getLiveStats() in the order of getLiveStatsFields(), with the state as its ordinal.
+     */
+    public WritableArray getLiveStatsArray() {
+
+        WritableArray array = new WritableNativeArray();
+        array.pushInt(mState.get().ordinal());
+        array.pushInt(mStatsSampler.getSize());
+        array.pushDouble(getDecodeActiveTime());
+        for (int field = 0; field < StatsSampler.FIELD_COUNT; field++) {
+            array.pushDouble(mStatsSampler.getLatest(field));
+        }
+        return array;
+
+    }
+
+    public static String[] getLiveStatsFields() {
+
+        String[] fields = new String[3 + StatsSampler.FIELD_COUNT];
+        fields[0] = "state";
+        fields[1] = "samples";
+        fields[2] = "decodeActiveTime";
+        System.arraycopy(StatsSampler.FIELD_NAMES, 0, fields, 3, StatsSampler.FIELD_COUNT);
+        return fields;
+
+    }
+
+    public WritableMap getStreamStats() {
+
+        WritableMap map = new WritableNativeMap();
+        map.putString("streamName", mStreamName);
+        map.putBoolean("publisher", mIsPublisher);
+        map.putInt("samples", mStatsSampler.getSize());
+        map.putInt("interval", mStatsInterval);
+        map.putDouble("decodeActiveTime", getDecodeActiveTime());
+        for (int field = 0; field < StatsSampler.FIELD_COUNT; field++) {
+            WritableMap summary = new WritableNativeMap();
+            summary.putDouble("last", mStatsSampler.getLatest(field));
+            summary.putDouble("avg", mStatsSampler.getAverage(field));
+            summary.putDouble("min", mStatsSampler.getMin(field));
+            summary.putDouble("max", mStatsSampler.getMax(field));
+            map.putMap(StatsSampler.FIELD_NAMES[field], summary);
+        }
+        return map;
+
+    }
+
+    private void handleDisconnect(R5ConnectionEvent event, R5Stream source) {
+
+        if (source != mStream) {
+            // Raised by a stream that has since been replaced.
+            return;
+        }
+
+        if (mReconnectPolicy.isActive()) {
+            if (mState.is(SessionState.CONNECTING)) {
+                Log.d("R5VideoViewLayout", "reconnect:attempt failed (" + event.name() + ")");
+                emitReconnectStatus("failed", 0);
+                releaseStreamForReconnect();
+                scheduleReconnectAttempt();
+            }
+            return;
+        }
+
+        if (mIsSwitchingRendition && mState.is(SessionState.CONNECTING)
+                && mPlayingStreamName != null && !mPlayingStreamName.equals(mStreamName)) {
+            // The background rendition is not available; stay on the stream itself without video.
+            Log.w("R5VideoViewLayout", "switchRendition:error - " + mPlayingStreamName + " (" + event.name() + ")");
+            restartRendition(mStreamName, !mIsDecodeSuspended);
+            return;
+        }
+
+        if (event != R5ConnectionEvent.DISCONNECTED) {
+            if (mState.is(SessionState.CONNECTING)) {
+                // The connection failed before streaming started; stop as a call to unpublish or unsubscribe would.
+                Log.w("R5VideoViewLayout", "connect:error - " + event.name());
+                if (mIsPublisher) {
+                    unpublish();
+                }
+                else {
+                    unsubscribe();
+                }
+            }
+            return;
+        }
+
+        if (mAutoReconnect && mReconnectPolicy.getMaxAttempts() > 0
+                && mState.transition(SessionState.STREAMING, SessionState.CONNECTING)) {
+            Log.d("R5VideoViewLayout", "reconnect:start");
+            mReconnectPolicy.start(SystemClock.elapsedRealtime());
+            releaseStreamForReconnect();
+            scheduleReconnectAttempt();
+            return;
+        }
+
+        if (mState.get().isActive()) {
+            WritableMap evt = new WritableNativeMap();
+            if (mIsPublisher) {
+                mEventDispatcher.dispatch(Events.UNPUBLISH_NOTIFICATION.toString(), evt);
+            }
+            else {
+                mEventDispatcher.dispatch(Events.UNSUBSCRIBE_NOTIFICATION.toString(), evt);
+            }
+            Log.d("R5VideoViewLayout", "DISCONNECT");
+            cleanup();
+        }
+
+    }
+
+    /*
+     * Drops the failed stream and connection but keeps the camera, microphone settings and video view,
+     * so the next attempt only has to reconnect.
+     */
+    private void releaseStreamForReconnect() {
+
+        stopStatsSampling();
+        stopDecodeClock();
+        if (!mIsPublisher) {
+            detachVideoView();
+        }
         if (mStream != null) {
-            mStream.setLogLevel(level);
+            mStream.attachCamera(null);
+            mStream.client = null;
+            mStream.setListener(null);
+            mStream = null;
         }
+        if (mConnection != null) {
+            mConnection.removeListener();
+            mConnection = null;
+        }
+
+    }
+
+    private void scheduleReconnectAttempt() {
+
+        if (!mReconnectPolicy.hasAttemptsRemaining()) {
+            onReconnectExhausted();
+            return;
+        }
+        long delay = mReconnectPolicy.nextDelay();
+        Log.d("R5VideoViewLayout", "reconnect:attempt " + mReconnectPolicy.getAttempt() + " in " + delay + "ms");
+        emitReconnectStatus("scheduled", delay);
+        mMediaThread.postDelayed(mReconnectTask, delay);
+
+    }
+
+    private final Runnable mReconnectTask = new Runnable() {
+        @Override
+        public void run() {
+
+            if (!mReconnectPolicy.isActive() || !mState.is(SessionState.CONNECTING)) {
+                return;
+            }
+            mReconnectPolicy.markAttemptStarted(SystemClock.elapsedRealtime());
+            emitReconnectStatus("attempt", 0);
+
+            try {
+                establishConnection(mConfiguration);
+                if (mIsPublisher) {
+                    mIsPublisherSetup = false;
+                    completePublisherSetup(false, null);
+                    startPublishing(mStreamName, mStreamType, true);
+                }
+                else if ((mDecodeSuspendReasons & SUSPEND_BACKGROUND) != 0 && mBackgroundStreamName != null) {
+                    playWithoutVideo(mBackgroundStreamName);
+                }
+                else {
+                    doSubscribe(mStreamName, showDebug);
+                }
+            } catch (Exception e) {
+                Log.w("R5VideoViewLayout", "reconnect:attempt:error - " + e.getMessage());
+                emitReconnectStatus("failed", 0);
+                releaseStreamForReconnect();
+                scheduleReconnectAttempt();
+            }
+
+        }
+    };
+
+    private void onReconnectExhausted() {
+
+        Log.d("R5VideoViewLayout", "reconnect:exhausted");
+        emitReconnectStatus("exhausted", 0);
+        WritableMap evt = new WritableNativeMap();
+        if (mIsPublisher) {
+            mEventDispatcher.dispatch(Events.UNPUBLISH_NOTIFICATION.toString(), evt);
+        }
+        else {
+            mEventDispatcher.dispatch(Events.UNSUBSCRIBE_NOTIFICATION.toString(), evt);
+        }
+        teardown(false);
+
+    }
+
+    private void cancelReconnect() {
+
+        Log.d("R5VideoViewLayout", "reconnect:cancel");
+        emitReconnectStatus("cancelled", 0);
+        teardown(mStream != null);
+        WritableMap evt = new WritableNativeMap();
+        if (mIsPublisher) {
+            mEventDispatcher.dispatch(Events.UNPUBLISH_NOTIFICATION.toString(), evt);
+        }
+        else {
+            mEventDispatcher.dispatch(Events.UNSUBSCRIBE_NOTIFICATION.toString(), evt);
+        }
+
+    }
+
+    private void emitReconnectStatus(String status, long delay) {
+
+        long now = SystemClock.elapsedRealtime();
+        WritableMap map = new WritableNativeMap();
+        map.putString("status", status);
+        map.putString("streamName", mStreamName);
+        map.putInt("attempt", mReconnectPolicy.getAttempt());
+        map.putInt("maxAttempts", mReconnectPolicy.getMaxAttempts());
+        map.putDouble("delay", delay);
+        map.putDouble("elapsed", mReconnectPolicy.getAttemptElapsed(now));
+        map.putDouble("totalElapsed", mReconnectPolicy.getTotalElapsed(now));
+        mEventDispatcher.dispatch(Events.RECONNECT_STATUS.toString(), map);
+
+    }
+
+    @Override
+    public void onHostResume() {
+        Activity activity = mContext.getCurrentActivity();
+
+        Log.d("R5VideoViewLayout", "onHostResume()");
+        if (mIsPublisher) {
+            mOrientationEngine.start();
+            runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    prewarmPublisherCamera();
+                }
+            });
+        }
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                bringToForeground();
+            }
+        });
+    }
+
+    @Override
+    public void onHostPause() {
+        mOrientationEngine.stop();
+        Log.d("R5VideoViewLayout", "onHostPause()");
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                // Preloaded streams are not kept downloading in the background.
+                mPreloader.clear();
+                sendToBackground();
+            }
+        });
+    }
+
+    @Override
+    public void onHostDestroy() {
+        Log.d("R5VideoViewLayout", "onHostDestroy()");
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                unbindBackgroundService();
+            }
+        });
+    }
+
+    private void unbindBackgroundService() {
+        if (!mIsBackgroundBound) {
+            return;
+        }
+        if (mIsPublisher) {
+            this.setPublisherDisplayOn(false);
+        } else {
+            this.setSubscriberDisplayOn(false);
+        }
+        releaseBackgroundService();
+    }
+
+    /*
+     * The service is stopped once no session of any view holds it.
+     */
+    private void releaseBackgroundService() {
+        if (!mIsBackgroundBound) {
+            return;
+        }
+        if (mBackgroundService != null) {
+            mBackgroundService.detach(this);
+            mBackgroundService = null;
+        }
+        BackgroundServiceRegistry.release(mContext, StreamingService.class, mBackgroundServiceClient);
+        mIsBackgroundStartPending = false;
+        mIsBackgroundBound = false;
+    }
+
+    /*
+     * Configuration changes other than a rotation (keyboard, locale, night mode...) settle on the rotation
+     * already reported, and leave orientation untouched.
+     */
+    @Override
+    public void onConfigurationChanged(Configuration config) {
+        if (mIsPublisher) {
+            mOrientationEngine.check();
+        }
+    }
+
+    public void updateShowDebug(boolean show) {
+        this.showDebug = show;
+        if (this.getVideoView() != null) {
+            this.getVideoView().showDebugView(this.showDebug);
+        }
+    }
+
+    public void updateScaleMode(final int mode) {
+        this.scaleMode = mode;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mStream != null) {
+                    mStream.setScaleMode(mode);
+                }
+            }
+        });
+    }
+
+    public void updateLogLevel(final int level) {
+        this.logLevel = level;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                if (mStream != null) {
+                    mStream.setLogLevel(level);
+                }
+            }
+        });
     }
 
     public void updatePublishVideo(boolean useVideo) {
@@ -1027,14 +2585,106 @@ public class R5VideoViewLayout extends FrameLayout
         this.mUseBackfacingCamera = value;
     }
 
+    public void updatePublisherUseCamera2(boolean value) {
+        this.mUseCamera2 = value;
+    }
+
     public void updatePubSubBackgroundStreaming(boolean value) {
         this.mEnableBackgroundStreaming = value;
     }
 
+    public void updateAutoReconnect(boolean value) {
+        this.mAutoReconnect = value;
+    }
+
+    public void updateReconnectMaxAttempts(int value) {
+        this.mReconnectMaxAttempts = value;
+        updateReconnectLimits();
+    }
+
+    public void updateReconnectBaseDelay(int value) {
+        this.mReconnectBaseDelay = value;
+        updateReconnectLimits();
+    }
+
+    public void updateReconnectMaxDelay(int value) {
+        this.mReconnectMaxDelay = value;
+        updateReconnectLimits();
+    }
+
+    public void updateStatsInterval(int value) {
+        this.mStatsInterval = value;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                startStatsSampling();
+            }
+        });
+    }
+
+    public void updateStatsHistorySize(int value) {
+        this.mStatsHistorySize = value;
+        final int size = value;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mStatsSampler.resize(size);
+            }
+        });
+    }
+
+    public void updateStatsReportInterval(int value) {
+        this.mStatsReportInterval = value;
+    }
+
+    private void updateReconnectLimits() {
+        final int maxAttempts = mReconnectMaxAttempts;
+        final int baseDelay = mReconnectBaseDelay;
+        final int maxDelay = mReconnectMaxDelay;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mReconnectPolicy.setLimits(maxAttempts, baseDelay, maxDelay);
+            }
+        });
+    }
+
+    public void updateBackgroundStreamName(String value) {
+        this.mBackgroundStreamName = value != null && value.length() > 0 ? value : null;
+    }
+
+    public void updateSuspendWhenHidden(boolean value) {
+        this.mSuspendWhenHidden = value;
+        mVisibilityTracker.setEnabled(value);
+    }
+
+    public void updateDecodePriority(int value) {
+        this.mDecodePriority = value;
+        updateDecodePrioritySnapshot();
+        postDecodePriorityUpdate();
+    }
+
+    public void updatePreloadLimit(int value) {
+        final int limit = value;
+        runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                mPreloader.setLimit(limit);
+            }
+        });
+    }
+
     public void updateZOrderOnTop(boolean value) {
         this.mZOrderOnTop = value;
     }
 
+    /*
+     * Takes effect when the video view of the layout is created, on its first subscription.
+     */
+    public void updateUseTextureView(boolean value) {
+        this.mUseTextureView = value;
+    }
+
     public void updateZOrderMediaOverlay(boolean value) {
         this.mZOrderMediaOverlay = value;
     }
@@ -1046,26 +2696,109 @@ public class R5VideoViewLayout extends FrameLayout
     /*
      * [Red5Pro]
      *
-     * Start silly hack of enforcing layout of underlying GLSurface for view.
+     * Enforces layout of the underlying GLSurface for the view, once per frame at most.
      */
     @Override
     public void requestLayout() {
         super.requestLayout();
-        post(measureAndLayout);
+        // Called from the FrameLayout constructor before the fields are assigned.
+        if (mLayoutScheduler != null) {
+            mLayoutScheduler.request();
+        }
     }
 
-    private final Runnable measureAndLayout = new Runnable() {
+    private final LayoutScheduler mLayoutScheduler = new LayoutScheduler(new LayoutScheduler.Pass() {
         @Override
-        public void run() {
+        public boolean onLayoutPass() {
+
+            int left = getLeft();
+            int top = getTop();
+            int right = getRight();
+            int bottom = getBottom();
+            if (left == mLaidOutLeft && top == mLaidOutTop && right == mLaidOutRight && bottom == mLaidOutBottom
+                    && getChildCount() == mLaidOutChildCount && !isChildLayoutRequested()) {
+                return false;
+            }
+
             measure(
-                    MeasureSpec.makeMeasureSpec(getWidth(), MeasureSpec.EXACTLY),
-                    MeasureSpec.makeMeasureSpec(getHeight(), MeasureSpec.EXACTLY));
-            layout(getLeft(), getTop(), getRight(), getBottom());
-            if (mOrientationDirty) {
-                reorient();
+                    MeasureSpec.makeMeasureSpec(right - left, MeasureSpec.EXACTLY),
+                    MeasureSpec.makeMeasureSpec(bottom - top, MeasureSpec.EXACTLY));
+            layout(left, top, right, bottom);
+            mLaidOutLeft = left;
+            mLaidOutTop = top;
+            mLaidOutRight = right;
+            mLaidOutBottom = bottom;
+            mLaidOutChildCount = getChildCount();
+            return true;
+
+        }
+    });
+
+    private int mLaidOutLeft = -1;
+    private int mLaidOutTop = -1;
+    private int mLaidOutRight = -1;
+    private int mLaidOutBottom = -1;
+    private int mLaidOutChildCount = -1;
+
+    private boolean isChildLayoutRequested() {
+        for (int i = 0; i < getChildCount(); i++) {
+            if (getChildAt(i).isLayoutRequested()) {
+                return true;
             }
         }
-    };
+        return false;
+    }
+
+    public WritableMap getLayoutCounters() {
+        WritableMap map = new WritableNativeMap();
+        map.putInt("requests", mLayoutScheduler.getRequestCount());
+        map.putInt("coalesced", mLayoutScheduler.getCoalescedCount());
+        map.putInt("passes", mLayoutScheduler.getPassCount());
+        map.putInt("skipped", mLayoutScheduler.getSkippedCount());
+        map.putInt("videoScaled", mVideoTransform.getScaledCount());
+        map.putInt("videoResized", mVideoTransform.getResizedCount());
+        map.putInt("videoRotated", mVideoTransform.getRotatedCount());
+        map.putInt("videoUnchanged", mVideoTransform.getSkippedCount());
+        return map;
+    }
+
+    /*
+     * Shared by all texture views of the registry.
+     */
+    public WritableMap getRenderCounters() {
+        TextureRenderer renderer = mSessionRegistry.getTextureRenderer();
+        WritableMap map = new WritableNativeMap();
+        map.putInt("textureViews", renderer.getTargetCount());
+        map.putInt("frames", renderer.getFrameCount());
+        map.putDouble("meanFrameTime", renderer.getMeanFrameTime());
+        map.putDouble("maxFrameTime", renderer.getMaxFrameTime());
+        map.putDouble("surfacePixels", renderer.getSurfacePixels());
+        return map;
+    }
+
+    /*
+     * Shared by all layouts of the registry.
+     */
+    public WritableMap getViewPoolCounters() {
+        VideoViewPool pool = mSessionRegistry.getVideoViewPool();
+        int requests = pool.getRequestCount();
+        WritableMap map = new WritableNativeMap();
+        map.putInt("size", pool.size());
+        map.putInt("capacity", pool.getCapacity());
+        map.putInt("requests", requests);
+        map.putInt("hits", pool.getHitCount());
+        map.putDouble("hitRate", requests == 0 ? 0 : (double)pool.getHitCount() / requests);
+        map.putInt("evictions", pool.getEvictionCount());
+        map.putDouble("heldBytes", pool.getHeldBytes());
+        return map;
+    }
+
+    public WritableMap getOrientationCounters() {
+        WritableMap map = new WritableNativeMap();
+        map.putInt("settled", mOrientationEngine.getSettledCount());
+        map.putInt("metaUpdates", mMetaUpdateCount);
+        return map;
+    }
     /*
      * [/Red5Pro]
      */
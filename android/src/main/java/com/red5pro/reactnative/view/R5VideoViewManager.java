@@ -10,10 +10,12 @@ import com.facebook.react.uimanager.ThemedReactContext;
 import com.facebook.react.uimanager.SimpleViewManager;
 import com.facebook.react.uimanager.annotations.ReactProp;
 
+import com.red5pro.reactnative.util.ConfigurationUtil;
+
 import com.red5pro.streaming.R5Stream;
-import com.red5pro.streaming.R5StreamProtocol;
 import com.red5pro.streaming.config.R5Configuration;
 
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -23,15 +25,7 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
 
     private static final String REACT_CLASS = "R5VideoView";
 
-    private static final String PROP_HOST = "host";
-    private static final String PROP_PORT = "port";
-    private static final String PROP_CONTEXT_NAME = "contextName";
-    private static final String PROP_STREAM_NAME = "streamName";
-    private static final String PROP_BUFFER_TIME = "bufferTime";
-    private static final String PROP_LICENSE_KEY = "licenseKey";
-    private static final String PROP_BUNDLE_ID = "bundleID";
-    private static final String PROP_PARAMETERS = "parameters";
-    private static final String PROP_STREAM_BUFFER_TIME = "streamBufferTime";
+    private static final String PROP_KEY = "key";
 
     private static final int COMMAND_SUBSCRIBE = 1;
     private static final int COMMAND_PUBLISH = 2;
@@ -45,16 +39,38 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
     private static final int COMMAND_MUTE_VIDEO = 10;
     private static final int COMMAND_UNMUTE_VIDEO = 11;
     private static final int COMMAND_SET_PLAYBACK_VOLUME = 12;
+    private static final int COMMAND_REQUEST_STARTUP_TIMING = 13;
+    private static final int COMMAND_PRELOAD = 14;
+
+    private final R5SessionRegistry mSessionRegistry;
 
-    public R5VideoViewLayout getmView() {
-        return mView;
+    public R5VideoViewManager() {
+        this(R5SessionRegistry.UNLIMITED_SESSIONS);
     }
 
-    private R5VideoViewLayout mView;
-    private ThemedReactContext mContext;
+    /**
+     * @param maxConcurrentSessions The number of views allowed to be publishing or subscribing at once;
+     *                              0 for no limit.
+     */
+    public R5VideoViewManager(int maxConcurrentSessions) {
+        this(new R5SessionRegistry(maxConcurrentSessions));
+    }
 
-    public R5VideoViewManager() {
+    /**
+     * @param registry Shared with the native modules that address sessions by React tag.
+     */
+    public R5VideoViewManager(R5SessionRegistry registry) {
         super();
+        mSessionRegistry = registry;
+    }
+
+    public R5SessionRegistry getSessionRegistry() {
+        return mSessionRegistry;
+    }
+
+    @Nullable
+    public R5VideoViewLayout getSession(int tag) {
+        return mSessionRegistry.get(tag);
     }
 
     @Override
@@ -65,12 +81,21 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
     @Override
     protected R5VideoViewLayout createViewInstance(ThemedReactContext reactContext) {
 
-        mContext = reactContext;
-        mView = new R5VideoViewLayout(reactContext);
-        return mView;
+        return new R5VideoViewLayout(reactContext, mSessionRegistry);
+
+    }
 
+    @Override
+    protected void onAfterUpdateTransaction(R5VideoViewLayout view) {
+        super.onAfterUpdateTransaction(view);
+        // The React tag is assigned after createViewInstance, so sessions are keyed once props are applied.
+        mSessionRegistry.register(view);
     }
 
+    /*
+     * Commands arrive on the UI thread. Stream and camera work is handed to the media thread of the target view,
+     * which runs them in the order they were received.
+     */
     @Override
     public void receiveCommand(final R5VideoViewLayout root, int commandId, @Nullable ReadableArray args) {
         if (args != null) {
@@ -79,19 +104,26 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
 
         switch (commandId) {
             case COMMAND_UPDATE_SCALE_SIZE:
-                int updateWidth = args.getInt(0);
-                int updateHeight = args.getInt(1);
-                int screenWidth = args.getInt(2);
-                int screenHeight = args.getInt(3);
-                root.updateScaleSize(updateWidth, updateHeight, screenWidth, screenHeight);
+                final int updateWidth = args.getInt(0);
+                final int updateHeight = args.getInt(1);
+                final int screenWidth = args.getInt(2);
+                final int screenHeight = args.getInt(3);
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.updateScaleSize(updateWidth, updateHeight, screenWidth, screenHeight);
+                    }
+                });
                 break;
             case COMMAND_SUBSCRIBE:
 
-                int w = root.getWidth();
-                int h = root.getHeight();
-
                 final String streamName = args.getString(0);
-                root.subscribe(streamName);
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.subscribe(streamName);
+                    }
+                });
 
                 break;
             case COMMAND_PUBLISH:
@@ -110,22 +142,43 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
                 else if (type == 2) {
                     recordType = R5Stream.RecordType.Append;
                 }
-                root.publish(name, recordType);
+                final R5Stream.RecordType publishType = recordType;
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.publish(name, publishType);
+                    }
+                });
 
                 break;
             case COMMAND_UNSUBSCRIBE:
 
-                root.unsubscribe();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.unsubscribe();
+                    }
+                });
 
                 break;
             case COMMAND_UNPUBLISH:
 
-                root.unpublish();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.unpublish();
+                    }
+                });
 
                 break;
             case COMMAND_SWAP_CAMERA:
 
-                root.swapCamera();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.swapCamera();
+                    }
+                });
 
                 break;
             case COMMAND_UPDATE_SCALE_MODE:
@@ -135,21 +188,64 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
 
                 break;
             case COMMAND_MUTE_AUDIO:
-                root.muteAudio();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.muteAudio();
+                    }
+                });
                 break;
             case COMMAND_UNMUTE_AUDIO:
-                root.unmuteAudio();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.unmuteAudio();
+                    }
+                });
                 break;
             case COMMAND_MUTE_VIDEO:
-                root.muteVideo();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.muteVideo();
+                    }
+                });
                 break;
             case COMMAND_UNMUTE_VIDEO:
-                root.unmuteVideo();
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.unmuteVideo();
+                    }
+                });
                 break;
             case COMMAND_SET_PLAYBACK_VOLUME:
 
                 final int value = args.getInt(0);
-                root.setPlaybackVolume(value/100);
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.setPlaybackVolume(value/100);
+                    }
+                });
+
+                break;
+            case COMMAND_REQUEST_STARTUP_TIMING:
+                root.emitStartupTiming();
+                break;
+            case COMMAND_PRELOAD:
+
+                ReadableArray names = args.getArray(0);
+                final ArrayList<String> streamNames = new ArrayList<>();
+                for (int i = 0; i < names.size(); i++) {
+                    streamNames.add(names.getString(i));
+                }
+                root.runOnMediaThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        root.preload(streamNames);
+                    }
+                });
 
                 break;
             default:
@@ -158,6 +254,13 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
         }
     }
 
+    @Override
+    public void onDropViewInstance(R5VideoViewLayout view) {
+        super.onDropViewInstance(view);
+        mSessionRegistry.unregister(view);
+        view.release();
+    }
+
     @Nullable
     @Override
     public Map<String, Integer> getCommandsMap() {
@@ -178,53 +281,29 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
         return builder.build();
     }
 
-    private R5Configuration createConfigurationFromMap(ReadableMap configuration) {
-
-        boolean hasHost = configuration.hasKey(PROP_HOST);
-        boolean hasPort = configuration.hasKey(PROP_PORT);
-        boolean hasContextName = configuration.hasKey(PROP_CONTEXT_NAME);
-        boolean hasStreamName = configuration.hasKey(PROP_STREAM_NAME);
-        boolean hasBufferTime = configuration.hasKey(PROP_BUFFER_TIME);
-        boolean hasStreamBufferTime = configuration.hasKey(PROP_STREAM_BUFFER_TIME);
-        boolean hasBundleID = configuration.hasKey(PROP_BUNDLE_ID);
-        boolean hasLicenseKey = configuration.hasKey(PROP_LICENSE_KEY);
-        boolean hasParameters = configuration.hasKey(PROP_PARAMETERS);
+    @ReactProp(name = "configuration")
+    public void setConfiguration(R5VideoViewLayout view, ReadableMap configuration) {
 
-        boolean hasRequired = hasHost && hasPort && hasContextName;
+        String key = configuration.getString(PROP_KEY);
+        R5Configuration current = view.getRequestedConfiguration();
 
-        if (!hasRequired) {
-            return null;
+        if (current == null) {
+            view.loadConfiguration(ConfigurationUtil.createConfigurationFromMap(configuration), key);
+        }
+        else if (ConfigurationUtil.hasEndpointChanged(current, configuration)) {
+            Log.d("R5VideoViewManager", "Configuration endpoint changed.");
+            view.swapConfiguration(ConfigurationUtil.createConfigurationFromMap(configuration), key);
+        }
+        else if (ConfigurationUtil.hasSessionSettingsChanged(current, configuration)) {
+            Log.d("R5VideoViewManager", "Configuration settings changed.");
+            view.updateConfiguration(ConfigurationUtil.createConfigurationFromMap(configuration), key);
+        }
+        else {
+            view.updateConfigurationKey(key);
         }
-
-        R5StreamProtocol protocol = R5StreamProtocol.RTSP;
-        String host = configuration.getString(PROP_HOST);
-        int port = configuration.getInt(PROP_PORT);
-        String contextName = configuration.getString(PROP_CONTEXT_NAME);
-        String streamName = hasStreamName ? configuration.getString(PROP_STREAM_NAME) : "mystream";
-        String bundleID = hasBundleID ? configuration.getString(PROP_BUNDLE_ID) : "com.red5pro.android";
-        String licenseKey = hasLicenseKey ? configuration.getString(PROP_LICENSE_KEY) : "";
-        float bufferTime = hasBufferTime ? (float) configuration.getDouble(PROP_BUFFER_TIME) : 1.0f;
-        float streamBufferTime = hasStreamBufferTime ? (float) configuration.getDouble(PROP_STREAM_BUFFER_TIME) : 2.0f;
-        String parameters = hasParameters ? configuration.getString(PROP_PARAMETERS) : "";
-
-        Log.d("R5VideoViewManager", "Parameters: " + parameters);
-
-        R5Configuration config = new R5Configuration(protocol, host, port, contextName, bufferTime, parameters);
-
-        config.setStreamBufferTime(streamBufferTime);
-        config.setBundleID(bundleID);
-        config.setStreamName(streamName);
-        config.setLicenseKey(licenseKey);
-
-        return config;
 
     }
 
-    @ReactProp(name = "configuration")
-    public void setConfiguration(R5VideoViewLayout view, ReadableMap configuration) {
-        view.loadConfiguration(createConfigurationFromMap(configuration), configuration.getString("key"));
-    }
-
     @ReactProp(name = "showDebugView", defaultBoolean = false)
     public void setShowDebugView(R5VideoViewLayout view, boolean showDebug) {
         view.updateShowDebug(showDebug);
@@ -310,16 +389,81 @@ public class R5VideoViewManager extends SimpleViewManager<R5VideoViewLayout> {
         view.updatePublisherUseBackfacingCamera(value);
     }
 
+    @ReactProp(name = "useCamera2", defaultBoolean = false)
+    public void setUseCamera2(R5VideoViewLayout view, boolean value) {
+        view.updatePublisherUseCamera2(value);
+    }
+
     @ReactProp(name = "enableBackgroundStreaming", defaultBoolean = false)
     public void setEnableBackgroundStreaming(R5VideoViewLayout view, boolean value) {
         view.updatePubSubBackgroundStreaming(value);
     }
 
+    @ReactProp(name = "autoReconnect", defaultBoolean = false)
+    public void setAutoReconnect(R5VideoViewLayout view, boolean value) {
+        view.updateAutoReconnect(value);
+    }
+
+    @ReactProp(name = "reconnectMaxAttempts", defaultInt = 5)
+    public void setReconnectMaxAttempts(R5VideoViewLayout view, int value) {
+        view.updateReconnectMaxAttempts(value);
+    }
+
+    @ReactProp(name = "reconnectBaseDelay", defaultInt = 500) // ms
+    public void setReconnectBaseDelay(R5VideoViewLayout view, int value) {
+        view.updateReconnectBaseDelay(value);
+    }
+
+    @ReactProp(name = "reconnectMaxDelay", defaultInt = 10000) // ms
+    public void setReconnectMaxDelay(R5VideoViewLayout view, int value) {
+        view.updateReconnectMaxDelay(value);
+    }
+
+    @ReactProp(name = "backgroundStreamName")
+    public void setBackgroundStreamName(R5VideoViewLayout view, String value) {
+        view.updateBackgroundStreamName(value);
+    }
+
+    @ReactProp(name = "suspendWhenHidden", defaultBoolean = false)
+    public void setSuspendWhenHidden(R5VideoViewLayout view, boolean value) {
+        view.updateSuspendWhenHidden(value);
+    }
+
+    @ReactProp(name = "decodePriority", defaultInt = 0)
+    public void setDecodePriority(R5VideoViewLayout view, int value) {
+        view.updateDecodePriority(value);
+    }
+
+    @ReactProp(name = "preloadLimit", defaultInt = 2)
+    public void setPreloadLimit(R5VideoViewLayout view, int value) {
+        view.updatePreloadLimit(value);
+    }
+
+    @ReactProp(name = "statsInterval", defaultInt = 0) // ms
+    public void setStatsInterval(R5VideoViewLayout view, int value) {
+        view.updateStatsInterval(value);
+    }
+
+    @ReactProp(name = "statsHistorySize", defaultInt = 30)
+    public void setStatsHistorySize(R5VideoViewLayout view, int value) {
+        view.updateStatsHistorySize(value);
+    }
+
+    @ReactProp(name = "statsReportInterval", defaultInt = 1000) // ms
+    public void setStatsReportInterval(R5VideoViewLayout view, int value) {
+        view.updateStatsReportInterval(value);
+    }
+
     @ReactProp(name = "zOrderOnTop", defaultBoolean = true)
     public  void setZOrderOnTop(R5VideoViewLayout view, boolean value) {
         view.updateZOrderOnTop(value);
     }
 
+    @ReactProp(name = "useTextureView", defaultBoolean = false)
+    public void setUseTextureView(R5VideoViewLayout view, boolean value) {
+        view.updateUseTextureView(value);
+    }
+
     @ReactProp(name = "zOrderMediaOverlay", defaultBoolean = true)
     public  void setZOrderOverlayMedia(R5VideoViewLayout view, boolean value) {
         view.updateZOrderMediaOverlay(value);
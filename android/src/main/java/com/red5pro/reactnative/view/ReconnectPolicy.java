@@ -0,0 +1,90 @@
+package com.red5pro.reactnative.view;
+
+import java.util.Random;
+
+/**
+ * Exponential backoff with jitter, bounded by a maximum number of attempts.
+ *
+ * The delay before attempt n is drawn from [d/2, d] where d = min(maxDelay, baseDelay * 2^(n-1)),
+ * so that many clients dropped by the same network event do not retry in lockstep.
+ */
+public class ReconnectPolicy {
+
+    private final Random mRandom = new Random();
+
+    private int mMaxAttempts;
+    private long mBaseDelayMillis;
+    private long mMaxDelayMillis;
+
+    private int mAttempt;
+    private long mStartedAt;
+    private long mAttemptStartedAt;
+
+    public ReconnectPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        setLimits(maxAttempts, baseDelayMillis, maxDelayMillis);
+    }
+
+    public void setLimits(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        mMaxAttempts = Math.max(0, maxAttempts);
+        mBaseDelayMillis = Math.max(0, baseDelayMillis);
+        mMaxDelayMillis = Math.max(mBaseDelayMillis, maxDelayMillis);
+    }
+
+    public boolean isActive() {
+        return mStartedAt > 0;
+    }
+
+    public void start(long now) {
+        mAttempt = 0;
+        mStartedAt = now;
+        mAttemptStartedAt = 0;
+    }
+
+    public void reset() {
+        mAttempt = 0;
+        mStartedAt = 0;
+        mAttemptStartedAt = 0;
+    }
+
+    public boolean hasAttemptsRemaining() {
+        return mAttempt < mMaxAttempts;
+    }
+
+    /**
+     * Advances to the next attempt.
+     *
+     * @return the delay to wait before making it.
+     */
+    public long nextDelay() {
+
+        mAttempt++;
+        long delay = mBaseDelayMillis << Math.min(mAttempt - 1, 20);
+        if (delay > mMaxDelayMillis || delay < 0) {
+            delay = mMaxDelayMillis;
+        }
+        long half = delay / 2;
+        return half + (half > 0 ? (long) (mRandom.nextDouble() * (delay - half)) : 0);
+
+    }
+
+    public void markAttemptStarted(long now) {
+        mAttemptStartedAt = now;
+    }
+
+    public int getAttempt() {
+        return mAttempt;
+    }
+
+    public int getMaxAttempts() {
+        return mMaxAttempts;
+    }
+
+    public long getAttemptElapsed(long now) {
+        return mAttemptStartedAt > 0 ? now - mAttemptStartedAt : 0;
+    }
+
+    public long getTotalElapsed(long now) {
+        return mStartedAt > 0 ? now - mStartedAt : 0;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.red5pro.reactnative.view;
+
+/**
+ * Lifecycle of a single publisher or subscriber session.
+ *
+ * IDLE -> CONFIGURED -> CONNECTING -> STREAMING -> STOPPING -> CONFIGURED ... -> RELEASED
+ *
+ * A dropped STREAMING session returns to CONNECTING while it is automatically reconnected.
+ */
+public enum SessionState {
+
+    IDLE,
+    CONFIGURED,
+    CONNECTING,
+    STREAMING,
+    STOPPING,
+    RELEASED;
+
+    public boolean canTransitionTo(SessionState next) {
+
+        if (next == RELEASED) {
+            return this != RELEASED;
+        }
+
+        switch (this) {
+            case IDLE:
+                return next == CONFIGURED;
+            case CONFIGURED:
+                return next == CONFIGURED || next == CONNECTING;
+            case CONNECTING:
+                // Back to CONFIGURED when the connection fails before streaming starts.
+                return next == STREAMING || next == CONFIGURED;
+            case STREAMING:
+                return next == STOPPING || next == CONFIGURED || next == CONNECTING;
+            case STOPPING:
+                return next == CONFIGURED;
+            default:
+                return false;
+        }
+
+    }
+
+    public boolean isActive() {
+        return this == CONNECTING || this == STREAMING || this == STOPPING;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.red5pro.reactnative.view;
+
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free holder of a SessionState.
+ *
+ * Transitions are compare-and-set guarded, so a command racing an SDK callback or a lifecycle event
+ * is rejected instead of repeating work that the winner already did.
+ */
+public class SessionStateMachine {
+
+    private final AtomicReference<SessionState> mState = new AtomicReference<>(SessionState.IDLE);
+
+    public SessionState get() {
+        return mState.get();
+    }
+
+    public boolean is(SessionState state) {
+        return mState.get() == state;
+    }
+
+    public boolean transition(SessionState from, SessionState to) {
+
+        if (!from.canTransitionTo(to)) {
+            Log.w("R5VideoViewLayout", "SessionState:illegal " + from + " -> " + to);
+            return false;
+        }
+        if (!mState.compareAndSet(from, to)) {
+            Log.d("R5VideoViewLayout", "SessionState:rejected " + from + " -> " + to + " (is " + mState.get() + ")");
+            return false;
+        }
+        return true;
+
+    }
+
+    /**
+     * Moves to the requested state from whatever the current state is, if that transition is legal.
+     *
+     * @return the state moved from, or null if the transition was rejected.
+     */
+    public SessionState transitionTo(SessionState to) {
+
+        while (true) {
+            SessionState current = mState.get();
+            if (!current.canTransitionTo(to)) {
+                return null;
+            }
+            if (mState.compareAndSet(current, to)) {
+                return current;
+            }
+        }
+
+    }
+
+}
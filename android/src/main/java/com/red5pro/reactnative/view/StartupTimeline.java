@@ -0,0 +1,102 @@
+package com.red5pro.reactnative.view;
+
+/**
+ * Timestamps of the startup phases of a session, and per-phase latency histograms across the sessions of a view.
+ *
+ * Marking a phase only writes into preallocated primitive arrays; allocation is left to whoever reads a summary.
+ */
+public class StartupTimeline {
+
+    public static final int PHASE_REQUESTED = 0;
+    public static final int PHASE_CONNECTED = 1;
+    public static final int PHASE_STREAMING = 2;
+    public static final int PHASE_FIRST_FRAME = 3;
+    public static final int PHASE_COUNT = 4;
+
+    public static final String[] PHASE_NAMES = { "requested", "connected", "streaming", "firstFrame" };
+
+    // Upper bounds of the histogram buckets, in ms. The last bucket collects everything above.
+    public static final long[] BUCKET_BOUNDS = { 50, 100, 200, 400, 800, 1600, 3200, 6400 };
+
+    private final long[] mMarks = new long[PHASE_COUNT];
+    private final int[][] mBuckets = new int[PHASE_COUNT][BUCKET_BOUNDS.length + 1];
+    private final int[] mCount = new int[PHASE_COUNT];
+    private final long[] mSum = new long[PHASE_COUNT];
+    private final long[] mMin = new long[PHASE_COUNT];
+    private final long[] mMax = new long[PHASE_COUNT];
+
+    /**
+     * Starts timing a new session from the publish() or subscribe() request.
+     */
+    public synchronized void begin() {
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            mMarks[i] = 0;
+        }
+        mMarks[PHASE_REQUESTED] = System.nanoTime();
+    }
+
+    /**
+     * Records the first occurrence of a phase in the current session.
+     *
+     * @return ms since the request, or -1 if no session is being timed or the phase was already recorded.
+     */
+    public synchronized long mark(int phase) {
+
+        long start = mMarks[PHASE_REQUESTED];
+        if (start == 0 || mMarks[phase] != 0) {
+            return -1;
+        }
+
+        long now = System.nanoTime();
+        mMarks[phase] = now;
+        long elapsed = (now - start) / 1000000L;
+
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && elapsed >= BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        mBuckets[phase][bucket]++;
+        if (mCount[phase] == 0 || elapsed < mMin[phase]) {
+            mMin[phase] = elapsed;
+        }
+        if (elapsed > mMax[phase]) {
+            mMax[phase] = elapsed;
+        }
+        mCount[phase]++;
+        mSum[phase] += elapsed;
+        return elapsed;
+
+    }
+
+    /**
+     * @return ms from the request to the phase in the current session, or -1 if not reached.
+     */
+    public synchronized long getElapsed(int phase) {
+        long start = mMarks[PHASE_REQUESTED];
+        if (start == 0 || mMarks[phase] == 0) {
+            return -1;
+        }
+        return (mMarks[phase] - start) / 1000000L;
+    }
+
+    public synchronized int getCount(int phase) {
+        return mCount[phase];
+    }
+
+    public synchronized long getMin(int phase) {
+        return mMin[phase];
+    }
+
+    public synchronized long getMax(int phase) {
+        return mMax[phase];
+    }
+
+    public synchronized double getMean(int phase) {
+        return mCount[phase] > 0 ? (double) mSum[phase] / mCount[phase] : 0;
+    }
+
+    public synchronized int getBucket(int phase, int bucket) {
+        return mBuckets[phase][bucket];
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.red5pro.reactnative.view;
+
+import com.red5pro.streaming.R5Stream;
+
+/**
+ * Fixed-size ring buffer of R5Stream statistics samples.
+ *
+ * Cumulative counters of the SDK are turned into per-interval rates when sampled. Samples are kept in
+ * primitive arrays allocated once per history size, so sampling does not allocate.
+ */
+public class StatsSampler {
+
+    public static final int FIELD_BITRATE = 0;
+    public static final int FIELD_VIDEO_FPS = 1;
+    public static final int FIELD_AUDIO_FPS = 2;
+    public static final int FIELD_DROPPED = 3;
+    public static final int FIELD_BUFFER = 4;
+    public static final int FIELD_LATENCY = 5;
+    public static final int FIELD_QUEUE = 6;
+    public static final int FIELD_COUNT = 7;
+
+    public static final String[] FIELD_NAMES = {
+            "bitrate", "videoFps", "audioFps", "droppedPackets", "bufferedTime", "latency", "socketQueue"
+    };
+
+    private float[][] mSeries;
+    private long[] mTimes;
+    private int mCapacity;
+    private int mHead;
+    private int mSize;
+
+    private long mLastTime;
+    private long mLastVideoFrames;
+    private long mLastAudioFrames;
+    private long mLastDropped;
+
+    public StatsSampler(int capacity) {
+        resize(capacity);
+    }
+
+    /**
+     * Reallocates the history, dropping the samples taken so far.
+     */
+    public synchronized void resize(int capacity) {
+        mCapacity = Math.max(1, capacity);
+        mSeries = new float[FIELD_COUNT][mCapacity];
+        mTimes = new long[mCapacity];
+        reset();
+    }
+
+    public synchronized void reset() {
+        mHead = 0;
+        mSize = 0;
+        mLastTime = 0;
+    }
+
+    public synchronized void sample(R5Stream.R5Stats stats, boolean isPublisher, long now) {
+
+        long videoFrames = stats.nb_video_frames;
+        long audioFrames = stats.nb_audio_frames;
+        long dropped = isPublisher ? stats.publish_pkts_dropped : stats.pkts_video_dropped + stats.pkts_audio_dropped;
+
+        float videoFps = 0;
+        float audioFps = 0;
+        float droppedDelta = 0;
+        if (mLastTime > 0 && now > mLastTime) {
+            float seconds = (now - mLastTime) / 1000f;
+            // Counters restart with a new stream; a negative delta means there is nothing to compare with yet.
+            videoFps = Math.max(0, videoFrames - mLastVideoFrames) / seconds;
+            audioFps = Math.max(0, audioFrames - mLastAudioFrames) / seconds;
+            droppedDelta = Math.max(0, dropped - mLastDropped);
+        }
+        mLastTime = now;
+        mLastVideoFrames = videoFrames;
+        mLastAudioFrames = audioFrames;
+        mLastDropped = dropped;
+
+        int i = mHead;
+        mTimes[i] = now;
+        mSeries[FIELD_BITRATE][i] = isPublisher ? stats.publish_bitrate : stats.subscribe_bitrate;
+        mSeries[FIELD_VIDEO_FPS][i] = videoFps;
+        mSeries[FIELD_AUDIO_FPS][i] = audioFps;
+        mSeries[FIELD_DROPPED][i] = droppedDelta;
+        mSeries[FIELD_BUFFER][i] = stats.buffered_time;
+        mSeries[FIELD_LATENCY][i] = stats.subscribe_latency;
+        mSeries[FIELD_QUEUE][i] = stats.socket_queue_size;
+
+        mHead = (mHead + 1) % mCapacity;
+        if (mSize < mCapacity) {
+            mSize++;
+        }
+
+    }
+
+    public synchronized int getSize() {
+        return mSize;
+    }
+
+    public synchronized int getCapacity() {
+        return mCapacity;
+    }
+
+    /**
+     * @param age 0 for the latest sample, up to getSize() - 1 for the oldest.
+     */
+    public synchronized float get(int field, int age) {
+        return mSeries[field][index(age)];
+    }
+
+    public synchronized long getTime(int age) {
+        return mTimes[index(age)];
+    }
+
+    public synchronized float getLatest(int field) {
+        return mSize > 0 ? mSeries[field][index(0)] : 0;
+    }
+
+    public synchronized float getAverage(int field) {
+        return mSize > 0 ? getSum(field) / mSize : 0;
+    }
+
+    public synchronized float getSum(int field) {
+        float sum = 0;
+        for (int age = 0; age < mSize; age++) {
+            sum += mSeries[field][index(age)];
+        }
+        return sum;
+    }
+
+    public synchronized float getMin(int field) {
+        float min = mSize > 0 ? Float.MAX_VALUE : 0;
+        for (int age = 0; age < mSize; age++) {
+            min = Math.min(min, mSeries[field][index(age)]);
+        }
+        return min;
+    }
+
+    public synchronized float getMax(int field) {
+        float max = 0;
+        for (int age = 0; age < mSize; age++) {
+            max = Math.max(max, mSeries[field][index(age)]);
+        }
+        return max;
+    }
+
+    private int index(int age) {
+        return (mHead - 1 - age + mCapacity * 2) % mCapacity;
+    }
+
+}
@@ -0,0 +1,282 @@
+package com.red5pro.reactnative.view;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.red5pro.streaming.R5Connection;
+import com.red5pro.streaming.R5Stream;
+import com.red5pro.streaming.config.R5Configuration;
+import com.red5pro.streaming.event.R5ConnectionEvent;
+import com.red5pro.streaming.event.R5ConnectionListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Keeps subscriptions to the streams a view is likely to switch to next, connected and playing muted
+ * without a view, so that a subscribe() to one of them only has to attach it.
+ *
+ * Each preloaded stream costs a connection, its full download bandwidth and a session slot of the registry,
+ * so their number is capped, and a stream that is not used within the idle time is dropped. All calls
+ * are made on the media thread of the owning view.
+ */
+public class StreamPreloader {
+
+    /**
+     * What takes over a preloaded stream: its connection listener, and the client the SDK hands metadata to.
+     */
+    public interface Client extends R5ConnectionListener {
+        void onMetaData(String metadata);
+    }
+
+    public static class Entry implements Client {
+
+        final String streamName;
+        final R5Connection connection;
+        final R5Stream stream;
+        long requestedAt = SystemClock.elapsedRealtime();
+        volatile boolean failed;
+
+        // Guarded by this entry, as the SDK raises events on its own threads while the stream is handed over.
+        private boolean connected;
+        private boolean streaming;
+        private String metadata;
+        private Client client;
+
+        Entry(R5Configuration configuration, String streamName) {
+            this.streamName = streamName;
+            connection = new R5Connection(configuration);
+            stream = new R5Stream(connection);
+            stream.setListener(this);
+            stream.client = this;
+        }
+
+        @Override
+        public void onConnectionEvent(R5ConnectionEvent event) {
+            Log.d("R5VideoViewLayout", "preload:onConnectionEvent " + streamName + " " + event.name());
+            synchronized (this) {
+                if (client != null) {
+                    // Raised before the hand over, delivered after it.
+                    client.onConnectionEvent(event);
+                    return;
+                }
+                if (event == R5ConnectionEvent.CONNECTED) {
+                    connected = true;
+                }
+                else if (event == R5ConnectionEvent.START_STREAMING) {
+                    streaming = true;
+                    mute(true);
+                }
+                else if (event == R5ConnectionEvent.DISCONNECTED || event == R5ConnectionEvent.ERROR
+                        || event == R5ConnectionEvent.TIMEOUT) {
+                    failed = true;
+                }
+            }
+        }
+
+        /*
+         * Called by the SDK as the client of the stream; held to be replayed to the view that adopts it.
+         */
+        @Override
+        public void onMetaData(String metadata) {
+            synchronized (this) {
+                if (client != null) {
+                    client.onMetaData(metadata);
+                    return;
+                }
+                this.metadata = metadata;
+            }
+        }
+
+        /**
+         * Makes the client the listener and client of the stream, and replays to it the state the stream
+         * reached before. Events the SDK was already delivering to the entry are forwarded once the replay
+         * is done, so the client sees each of them once, in order.
+         */
+        public void handOver(Client client) {
+            synchronized (this) {
+                this.client = client;
+                stream.setListener(client);
+                stream.client = client;
+                mute(false);
+
+                if (metadata != null) {
+                    client.onMetaData(metadata);
+                }
+                if (connected) {
+                    client.onConnectionEvent(R5ConnectionEvent.CONNECTED);
+                }
+                if (streaming) {
+                    client.onConnectionEvent(R5ConnectionEvent.START_STREAMING);
+                }
+            }
+        }
+
+        public String getStreamName() {
+            return streamName;
+        }
+
+        public R5Connection getConnection() {
+            return connection;
+        }
+
+        public R5Stream getStream() {
+            return stream;
+        }
+
+        public void mute(boolean muted) {
+            if (stream.audioController != null) {
+                stream.audioController.setPlaybackGain(muted ? 0f : 1f);
+            }
+        }
+
+    }
+
+    public static final int DEFAULT_LIMIT = 2;
+    public static final long DEFAULT_IDLE_TIME = 30000; // ms
+
+    private final R5SessionRegistry mRegistry;
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+    private int mLimit = DEFAULT_LIMIT;
+    private long mIdleTime = DEFAULT_IDLE_TIME;
+
+    private int mRequested;
+    private int mHits;
+
+    public StreamPreloader(R5SessionRegistry registry) {
+        mRegistry = registry;
+    }
+
+    public void setLimit(int limit) {
+        mLimit = Math.max(0, limit);
+        trim();
+    }
+
+    public void setIdleTime(long idleTime) {
+        mIdleTime = idleTime;
+    }
+
+    /**
+     * Preloads the first streams of the list that fit the limit, in order, and drops the preloaded
+     * streams no longer listed.
+     */
+    public void preload(R5Configuration configuration, List<String> streamNames, int logLevel) {
+
+        Iterator<Entry> iterator = mEntries.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            int index = streamNames.indexOf(entry.streamName);
+            if (index < 0 || index >= mLimit || entry.failed) {
+                iterator.remove();
+                stop(entry);
+            } else {
+                entry.requestedAt = SystemClock.elapsedRealtime();
+            }
+        }
+
+        for (int i = 0; i < streamNames.size() && mEntries.size() < mLimit; i++) {
+            String name = streamNames.get(i);
+            if (find(name) != null) {
+                continue;
+            }
+            if (!mRegistry.acquireSlot()) {
+                Log.w("R5VideoViewLayout", "preload:skipped " + name + " - no session slot.");
+                break;
+            }
+            Log.d("R5VideoViewLayout", "preload(" + name + ")");
+            try {
+                Entry entry = new Entry(configuration, name);
+                entry.stream.setLogLevel(logLevel);
+                entry.stream.play(name);
+                entry.mute(true);
+                mEntries.add(entry);
+                mRequested++;
+            } catch (Exception e) {
+                Log.w("R5VideoViewLayout", "preload:error - " + e.getMessage());
+                mRegistry.releaseSlot();
+            }
+        }
+
+    }
+
+    /**
+     * Hands over a preloaded stream, with its session slot given back, as the view holds its own.
+     * The view then takes the stream over with Entry.handOver.
+     *
+     * @return null if the stream is not preloaded or its subscription failed.
+     */
+    public Entry take(String streamName) {
+
+        trim();
+        Entry entry = find(streamName);
+        if (entry == null) {
+            return null;
+        }
+        mEntries.remove(entry);
+        mRegistry.releaseSlot();
+        mHits++;
+        return entry;
+
+    }
+
+    /**
+     * Drops the streams that failed or have not been used within the idle time, and those over the limit.
+     */
+    public void trim() {
+
+        long now = SystemClock.elapsedRealtime();
+        for (int i = mEntries.size() - 1; i >= 0; i--) {
+            Entry entry = mEntries.get(i);
+            if (entry.failed || i >= mLimit || (mIdleTime > 0 && now - entry.requestedAt > mIdleTime)) {
+                mEntries.remove(i);
+                stop(entry);
+            }
+        }
+
+    }
+
+    public void clear() {
+        for (Entry entry : mEntries) {
+            stop(entry);
+        }
+        mEntries.clear();
+    }
+
+    public int size() {
+        return mEntries.size();
+    }
+
+    public int getRequestedCount() {
+        return mRequested;
+    }
+
+    public int getHitCount() {
+        return mHits;
+    }
+
+    private Entry find(String streamName) {
+        for (Entry entry : mEntries) {
+            if (entry.streamName.equals(streamName) && !entry.failed) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void stop(Entry entry) {
+
+        Log.d("R5VideoViewLayout", "preload:drop " + entry.streamName);
+        entry.stream.setListener(null);
+        entry.stream.client = null;
+        try {
+            entry.stream.stop();
+        } catch (Exception e) {
+            Log.w("R5VideoViewLayout", "preload:stop:error - " + e.getMessage());
+        }
+        entry.connection.removeListener();
+        mRegistry.releaseSlot();
+
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.red5pro.reactnative.view;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Binder;
+import android.os.IBinder;
+import android.os.PowerManager;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.util.HashSet;
+
+/**
+ * Keeps the process in the foreground while any publisher or subscriber streams from the background.
+ *
+ * One instance hosts every background session of the app: sessions report when they move to and from
+ * the background, and a single notification, summarizing all of them, is shown while at least one is.
+ * A partial wake lock is held over the same period so that streaming continues with the screen off.
+ */
+public class StreamingService extends Service {
+
+	private static final int NOTIFICATION_ID = 57234111;
+
+	private final StreamingServiceBinder mBinder = new StreamingServiceBinder();
+
+	private final HashSet<Object> mBackgroundPublishers = new HashSet<>();
+	private final HashSet<Object> mBackgroundSubscribers = new HashSet<>();
+
+	private boolean mIsForeground;
+	private PowerManager.WakeLock mWakeLock;
+
+	@Nullable
+	@Override
+	public IBinder onBind(Intent intent) {
+		return mBinder;
+	}
+
+	@Override
+	public void onCreate() {
+		Log.d("R5VideoViewLayout", "StreamingService:onCreate()");
+		super.onCreate();
+	}
+
+	/**
+	 * @param session The view hosting the stream.
+	 * @param background Whether the session is streaming without a visible display.
+	 */
+	public synchronized void setSessionInBackground(Object session, boolean isPublisher, boolean background) {
+
+		Log.d("R5VideoViewLayout", "StreamingService:setSessionInBackground(" + background + ")");
+		HashSet<Object> sessions = isPublisher ? mBackgroundPublishers : mBackgroundSubscribers;
+		boolean changed = background ? sessions.add(session) : sessions.remove(session);
+		if (changed) {
+			updateForeground();
+		}
+
+	}
+
+	public synchronized void detach(Object session) {
+
+		Log.d("R5VideoViewLayout", "StreamingService:detach()");
+		if (mBackgroundPublishers.remove(session) | mBackgroundSubscribers.remove(session)) {
+			updateForeground();
+		}
+
+	}
+
+	public synchronized int getBackgroundSessionCount() {
+		return mBackgroundPublishers.size() + mBackgroundSubscribers.size();
+	}
+
+	private void updateForeground() {
+
+		int publishers = mBackgroundPublishers.size();
+		int subscribers = mBackgroundSubscribers.size();
+
+		if (publishers + subscribers == 0) {
+			if (mIsForeground) {
+				Log.d("R5VideoViewLayout", "StreamingService:stopForeground()");
+				stopForeground(true);
+				mIsForeground = false;
+			}
+			releaseWakeLock();
+			return;
+		}
+
+		Notification note = buildNotification(publishers, subscribers);
+		if (!mIsForeground) {
+			Log.d("R5VideoViewLayout", "StreamingService:startForeground()");
+			startForeground(NOTIFICATION_ID, note);
+			mIsForeground = true;
+		} else {
+			NotificationManager manager = (NotificationManager) getSystemService(Context.NOTIFICATION_SERVICE);
+			manager.notify(NOTIFICATION_ID, note);
+		}
+		acquireWakeLock();
+
+	}
+
+	private Notification buildNotification(int publishers, int subscribers) {
+
+		String text;
+		if (subscribers == 0) {
+			text = publishers == 1 ? "Publishing from the background"
+					: "Publishing " + publishers + " streams from the background";
+		} else if (publishers == 0) {
+			text = subscribers == 1 ? "Subscribing from the background"
+					: "Subscribing to " + subscribers + " streams from the background";
+		} else {
+			text = "Publishing " + publishers + " and subscribing to " + subscribers + " streams from the background";
+		}
+
+		return (new Notification.Builder(getApplicationContext()))
+				.setContentTitle("Red5 Pro")
+				.setContentText(text)
+				.setSmallIcon(android.R.drawable.ic_media_play)
+				.build();
+
+	}
+
+	private void acquireWakeLock() {
+
+		if (mWakeLock == null) {
+			PowerManager power = (PowerManager) getSystemService(Context.POWER_SERVICE);
+			mWakeLock = power.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, "R5Pro:StreamingService");
+			mWakeLock.setReferenceCounted(false);
+		}
+		if (!mWakeLock.isHeld()) {
+			mWakeLock.acquire();
+		}
+
+	}
+
+	private void releaseWakeLock() {
+
+		if (mWakeLock != null && mWakeLock.isHeld()) {
+			mWakeLock.release();
+		}
+
+	}
+
+	@Override
+	public void onDestroy() {
+
+		Log.d("R5VideoViewLayout", "StreamingService:onDestroy()");
+		synchronized (this) {
+			mBackgroundPublishers.clear();
+			mBackgroundSubscribers.clear();
+			if (mIsForeground) {
+				stopForeground(true);
+				mIsForeground = false;
+			}
+			releaseWakeLock();
+		}
+		super.onDestroy();
+
+	}
+
+	class StreamingServiceBinder extends Binder {
+		StreamingService getService() {
+			return StreamingService.this;
+		}
+	}
+
+}
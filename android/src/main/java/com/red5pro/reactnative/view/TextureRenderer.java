@@ -0,0 +1,302 @@
+package com.red5pro.reactnative.view;
+
+import android.graphics.SurfaceTexture;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.red5pro.streaming.R5Stream;
+import com.red5pro.streaming.view.RendererWrapper;
+
+import java.util.ArrayList;
+
+import javax.microedition.khronos.egl.EGL10;
+import javax.microedition.khronos.egl.EGLConfig;
+import javax.microedition.khronos.egl.EGLContext;
+import javax.microedition.khronos.egl.EGLDisplay;
+import javax.microedition.khronos.egl.EGLSurface;
+import javax.microedition.khronos.opengles.GL10;
+
+/**
+ * Draws the streams of TextureVideoViews on a single render thread, with one EGL context shared by all of them.
+ *
+ * Each target is drawn through the renderer the SDK uses for its GLSurfaceView, once per display frame,
+ * into a window surface made from the SurfaceTexture of its view. The thread starts with the first target,
+ * and the context is released with the last one.
+ */
+public class TextureRenderer implements Choreographer.FrameCallback {
+
+    private static final int EGL_CONTEXT_CLIENT_VERSION = 0x3098;
+    private static final int EGL_OPENGL_ES2_BIT = 4;
+
+    public static class Target {
+
+        final RendererWrapper renderer = new RendererWrapper();
+        EGLSurface surface;
+        int width;
+        int height;
+        boolean created;
+        boolean sizeChanged;
+        R5Stream stream;
+        boolean streamChanged;
+
+    }
+
+    private HandlerThread mThread;
+    private Handler mHandler;
+
+    private EGL10 mEgl;
+    private EGLDisplay mDisplay = EGL10.EGL_NO_DISPLAY;
+    private EGLConfig mConfig;
+    private EGLContext mContext = EGL10.EGL_NO_CONTEXT;
+    private GL10 mGl;
+
+    private final ArrayList<Target> mTargets = new ArrayList<>();
+    private boolean mFrameScheduled;
+
+    private int mFrames;
+    private long mTotalFrameTime;
+    private long mMaxFrameTime;
+    private long mSurfacePixels;
+    private int mTargetCount;
+
+    public Target createTarget() {
+        return new Target();
+    }
+
+    /**
+     * Starts drawing the target into the surface texture, once it is available to its view.
+     */
+    public void attach(final Target target, final SurfaceTexture surfaceTexture, final int width, final int height) {
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (mContext == EGL10.EGL_NO_CONTEXT && !setupContext()) {
+                    return;
+                }
+                target.surface = mEgl.eglCreateWindowSurface(mDisplay, mConfig, surfaceTexture, null);
+                if (target.surface == null || target.surface == EGL10.EGL_NO_SURFACE) {
+                    Log.w("R5VideoViewLayout", "TextureRenderer:attach:error - " + mEgl.eglGetError());
+                    target.surface = null;
+                    return;
+                }
+                target.width = width;
+                target.height = height;
+                target.created = false;
+                target.sizeChanged = true;
+                target.streamChanged = target.stream != null;
+                mTargets.add(target);
+                updateSurfacePixels();
+                scheduleFrame();
+            }
+        });
+
+    }
+
+    public void resize(final Target target, final int width, final int height) {
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                target.width = width;
+                target.height = height;
+                target.sizeChanged = true;
+                updateSurfacePixels();
+            }
+        });
+
+    }
+
+    /**
+     * Stops drawing the target, then releases the surface texture, which its view gave up.
+     */
+    public void detach(final Target target, final SurfaceTexture surfaceTexture) {
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                if (mTargets.remove(target)) {
+                    mEgl.eglMakeCurrent(mDisplay, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_CONTEXT);
+                    mEgl.eglDestroySurface(mDisplay, target.surface);
+                }
+                target.surface = null;
+                surfaceTexture.release();
+                updateSurfacePixels();
+                if (mTargets.isEmpty()) {
+                    releaseContext();
+                }
+            }
+        });
+
+    }
+
+    public void setStream(final Target target, final R5Stream stream) {
+
+        post(new Runnable() {
+            @Override
+            public void run() {
+                target.stream = stream;
+                target.streamChanged = true;
+            }
+        });
+
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        mFrameScheduled = false;
+        if (mTargets.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (Target target : mTargets) {
+            if (target.stream == null && !target.streamChanged) {
+                // Nothing to draw, and no consumer to take the frames of a view out of a window.
+                continue;
+            }
+            if (!mEgl.eglMakeCurrent(mDisplay, target.surface, target.surface, mContext)) {
+                Log.w("R5VideoViewLayout", "TextureRenderer:draw:error - " + mEgl.eglGetError());
+                continue;
+            }
+            if (!target.created) {
+                target.renderer.onSurfaceCreated(mGl, mConfig);
+                target.created = true;
+            }
+            if (target.sizeChanged) {
+                target.renderer.onSurfaceChanged(mGl, target.width, target.height);
+                target.sizeChanged = false;
+            }
+            if (target.streamChanged) {
+                target.renderer.attachStream(target.stream);
+                target.streamChanged = false;
+            }
+            // The viewport belongs to the shared context, not to the surface.
+            mGl.glViewport(0, 0, target.width, target.height);
+            target.renderer.onDrawFrame(mGl);
+            mEgl.eglSwapBuffers(mDisplay, target.surface);
+        }
+        long elapsed = System.nanoTime() - start;
+        synchronized (this) {
+            mFrames++;
+            mTotalFrameTime += elapsed;
+            mMaxFrameTime = Math.max(mMaxFrameTime, elapsed);
+        }
+        scheduleFrame();
+
+    }
+
+    private synchronized void post(Runnable task) {
+
+        if (mThread == null) {
+            mThread = new HandlerThread("R5VideoViewLayout-render", Process.THREAD_PRIORITY_DISPLAY);
+            mThread.start();
+            mHandler = new Handler(mThread.getLooper());
+        }
+        mHandler.post(task);
+
+    }
+
+    private void scheduleFrame() {
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    private boolean setupContext() {
+
+        mEgl = (EGL10) EGLContext.getEGL();
+        mDisplay = mEgl.eglGetDisplay(EGL10.EGL_DEFAULT_DISPLAY);
+        if (!mEgl.eglInitialize(mDisplay, new int[2])) {
+            Log.w("R5VideoViewLayout", "TextureRenderer:setup:error - " + mEgl.eglGetError());
+            return false;
+        }
+
+        // Matches the configuration the SDK requests for its GLSurfaceView.
+        int[] attributes = {
+                EGL10.EGL_RED_SIZE, 8,
+                EGL10.EGL_GREEN_SIZE, 8,
+                EGL10.EGL_BLUE_SIZE, 8,
+                EGL10.EGL_ALPHA_SIZE, 8,
+                EGL10.EGL_DEPTH_SIZE, 16,
+                EGL10.EGL_RENDERABLE_TYPE, EGL_OPENGL_ES2_BIT,
+                EGL10.EGL_NONE
+        };
+        EGLConfig[] configs = new EGLConfig[1];
+        int[] count = new int[1];
+        if (!mEgl.eglChooseConfig(mDisplay, attributes, configs, 1, count) || count[0] == 0) {
+            Log.w("R5VideoViewLayout", "TextureRenderer:setup:error - no config.");
+            return false;
+        }
+        mConfig = configs[0];
+        mContext = mEgl.eglCreateContext(mDisplay, mConfig, EGL10.EGL_NO_CONTEXT,
+                new int[] { EGL_CONTEXT_CLIENT_VERSION, 2, EGL10.EGL_NONE });
+        if (mContext == null || mContext == EGL10.EGL_NO_CONTEXT) {
+            Log.w("R5VideoViewLayout", "TextureRenderer:setup:error - " + mEgl.eglGetError());
+            mContext = EGL10.EGL_NO_CONTEXT;
+            return false;
+        }
+        mGl = (GL10) mContext.getGL();
+        Log.d("R5VideoViewLayout", "TextureRenderer:setup");
+        return true;
+
+    }
+
+    private void releaseContext() {
+
+        if (mContext == EGL10.EGL_NO_CONTEXT) {
+            return;
+        }
+        Log.d("R5VideoViewLayout", "TextureRenderer:release");
+        mEgl.eglMakeCurrent(mDisplay, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_SURFACE, EGL10.EGL_NO_CONTEXT);
+        mEgl.eglDestroyContext(mDisplay, mContext);
+        mEgl.eglTerminate(mDisplay);
+        mContext = EGL10.EGL_NO_CONTEXT;
+        mDisplay = EGL10.EGL_NO_DISPLAY;
+        mGl = null;
+        Choreographer.getInstance().removeFrameCallback(this);
+        mFrameScheduled = false;
+
+    }
+
+    private synchronized void updateSurfacePixels() {
+        long pixels = 0;
+        for (Target target : mTargets) {
+            pixels += (long)target.width * target.height;
+        }
+        mSurfacePixels = pixels;
+        mTargetCount = mTargets.size();
+    }
+
+    public synchronized int getTargetCount() {
+        return mTargetCount;
+    }
+
+    public synchronized int getFrameCount() {
+        return mFrames;
+    }
+
+    /**
+     * @return the mean time, in ms, taken to draw all targets for a frame.
+     */
+    public synchronized double getMeanFrameTime() {
+        return mFrames == 0 ? 0 : mTotalFrameTime / 1000000.0 / mFrames;
+    }
+
+    public synchronized double getMaxFrameTime() {
+        return mMaxFrameTime / 1000000.0;
+    }
+
+    /**
+     * @return the size, in pixels, of the surfaces drawn to.
+     */
+    public synchronized long getSurfacePixels() {
+        return mSurfacePixels;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.red5pro.reactnative.view;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.SurfaceTexture;
+import android.view.Gravity;
+import android.view.TextureView;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.red5pro.streaming.R5Stream;
+import com.red5pro.streaming.view.R5VideoView;
+
+/**
+ * A subscriber video view that renders into a TextureView rather than a SurfaceView.
+ *
+ * Its video is composited with the rest of the view hierarchy, so it follows the order, alpha and transforms
+ * of its views as any other view would, at the cost of a copy of each frame by the compositor. The streams
+ * of all texture views are drawn by the TextureRenderer of the session registry.
+ */
+public class TextureVideoView extends R5VideoView implements TextureView.SurfaceTextureListener {
+
+    private static final long DEBUG_INTERVAL = 1000; // ms
+
+    private final TextureRenderer mRenderer;
+    private final TextureRenderer.Target mTarget;
+    private final TextureView mTextureView;
+    private R5Stream mStream;
+
+    private boolean mRetainSurface;
+    private SurfaceTexture mRetainedSurface;
+
+    private TextView mDebugView;
+
+    private final Runnable mUpdateDebugView = new Runnable() {
+        @Override
+        public void run() {
+            if (mDebugView == null) {
+                return;
+            }
+            R5Stream stream = mStream;
+            mDebugView.setText(stream != null ? stream.getDebugInfo() : "");
+            postDelayed(this, DEBUG_INTERVAL);
+        }
+    };
+
+    public TextureVideoView(Context context, TextureRenderer renderer) {
+
+        super(context);
+        mRenderer = renderer;
+        mTarget = renderer.createTarget();
+        mTextureView = new TextureView(context);
+        mTextureView.setSurfaceTextureListener(this);
+        addView(mTextureView, new LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+    }
+
+    @Override
+    public void attachStream(R5Stream stream) {
+        mStream = stream;
+        mRenderer.setStream(mTarget, stream);
+    }
+
+    @Override
+    public void setStreamRotation(float rotation) {
+        mTextureView.setRotation((int)rotation);
+    }
+
+    /*
+     * Texture views are drawn in the order of the view hierarchy; there is no surface to order.
+     */
+    @Override
+    public void setZOrderOnTop(boolean onTop) {
+    }
+
+    @Override
+    public void setZOrderMediaOverlay(boolean isMediaOverlay) {
+    }
+
+    @Override
+    public void showDebugView(boolean show) {
+
+        removeCallbacks(mUpdateDebugView);
+        if (mDebugView != null) {
+            removeView(mDebugView);
+            mDebugView = null;
+        }
+        if (show) {
+            mDebugView = new TextView(getContext());
+            mDebugView.setTextColor(Color.WHITE);
+            addView(mDebugView, new LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT,
+                    ViewGroup.LayoutParams.WRAP_CONTENT, Gravity.TOP | Gravity.LEFT));
+            mUpdateDebugView.run();
+        }
+
+    }
+
+    public TextureView getTextureView() {
+        return mTextureView;
+    }
+
+    /**
+     * Keeps the surface texture, and the surface the renderer draws into, while the view is out of a window,
+     * to be used again once it is back in one. Set while the view is pooled.
+     */
+    public void setRetainSurface(boolean retain) {
+        mRetainSurface = retain;
+    }
+
+    /**
+     * Gives up a surface kept while out of a window.
+     */
+    public void releaseSurface() {
+
+        mRetainSurface = false;
+        if (mRetainedSurface != null) {
+            mRenderer.detach(mTarget, mRetainedSurface);
+            mRetainedSurface = null;
+        }
+
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        // Ahead of the texture view, which takes up the surface texture as it attaches.
+        if (mRetainedSurface != null) {
+            mTextureView.setSurfaceTexture(mRetainedSurface);
+            mRetainedSurface = null;
+        }
+        super.onAttachedToWindow();
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(SurfaceTexture surfaceTexture, int width, int height) {
+        mRenderer.attach(mTarget, surfaceTexture, width, height);
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(SurfaceTexture surfaceTexture, int width, int height) {
+        mRenderer.resize(mTarget, width, height);
+    }
+
+    /*
+     * The surface texture is released by the renderer once it no longer draws into it.
+     */
+    @Override
+    public boolean onSurfaceTextureDestroyed(SurfaceTexture surfaceTexture) {
+        if (mRetainSurface) {
+            mRetainedSurface = surfaceTexture;
+        } else {
+            mRenderer.detach(mTarget, surfaceTexture);
+        }
+        return false;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(SurfaceTexture surfaceTexture) {
+    }
+
+}
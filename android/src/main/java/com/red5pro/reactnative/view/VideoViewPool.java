@@ -0,0 +1,132 @@
+package com.red5pro.reactnative.view;
+
+import android.util.Log;
+
+import com.red5pro.streaming.view.R5VideoView;
+
+import java.util.ArrayList;
+
+/**
+ * Keeps the video views of dropped layouts, detached from any stream, for the next layouts that need one
+ * of the same kind, so that remounting a screen does not build its views and surfaces again.
+ *
+ * Views are matched on their render mode, z-order flags and size. The pool holds a bounded number of views
+ * and evicts the least recently returned one first. All calls are made on the UI thread.
+ */
+public class VideoViewPool {
+
+    public static final int DEFAULT_CAPACITY = 4;
+
+    private static class Entry {
+        final String key;
+        final R5VideoView view;
+        final long bytes;
+
+        Entry(String key, R5VideoView view, long bytes) {
+            this.key = key;
+            this.view = view;
+            this.bytes = bytes;
+        }
+    }
+
+    private final int mCapacity;
+    // Least recently returned first.
+    private final ArrayList<Entry> mEntries = new ArrayList<>();
+
+    private int mRequests;
+    private int mHits;
+    private int mEvictions;
+    private long mBytes;
+
+    public VideoViewPool(int capacity) {
+        mCapacity = Math.max(0, capacity);
+    }
+
+    /*
+     * The z-order of texture views has no effect, and does not set them apart.
+     */
+    public static String getKey(boolean textureView, boolean zOrderOnTop, boolean zOrderMediaOverlay,
+                                int width, int height) {
+        if (textureView) {
+            return "texture:" + width + "x" + height;
+        }
+        return "surface:" + zOrderOnTop + ":" + zOrderMediaOverlay + ":" + width + "x" + height;
+    }
+
+    /**
+     * @return the most recently returned view for the key, or null.
+     */
+    public synchronized R5VideoView take(String key) {
+
+        mRequests++;
+        for (int i = mEntries.size() - 1; i >= 0; i--) {
+            Entry entry = mEntries.get(i);
+            if (entry.key.equals(key)) {
+                mEntries.remove(i);
+                mBytes -= entry.bytes;
+                mHits++;
+                return entry.view;
+            }
+        }
+        return null;
+
+    }
+
+    /**
+     * Holds a view no longer in use, evicting the least recently returned views over the capacity.
+     *
+     * @param width The width of the view, to estimate the memory it holds.
+     * @param height The height of the view, to estimate the memory it holds.
+     */
+    public void put(String key, R5VideoView view, int width, int height) {
+
+        ArrayList<Entry> evicted = new ArrayList<>();
+        synchronized (this) {
+            // One 32 bit buffer per view; the surfaces behind it may hold more.
+            Entry entry = new Entry(key, view, (long)width * height * 4);
+            mEntries.add(entry);
+            mBytes += entry.bytes;
+            while (mEntries.size() > mCapacity) {
+                Entry oldest = mEntries.remove(0);
+                mBytes -= oldest.bytes;
+                mEvictions++;
+                evicted.add(oldest);
+            }
+        }
+        for (Entry entry : evicted) {
+            Log.d("R5VideoViewLayout", "VideoViewPool:evict " + entry.key);
+            if (entry.view instanceof TextureVideoView) {
+                ((TextureVideoView)entry.view).releaseSurface();
+            }
+        }
+
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    public synchronized int size() {
+        return mEntries.size();
+    }
+
+    public synchronized int getRequestCount() {
+        return mRequests;
+    }
+
+    public synchronized int getHitCount() {
+        return mHits;
+    }
+
+    public synchronized int getEvictionCount() {
+        return mEvictions;
+    }
+
+    /**
+     * @return an estimate of the memory held by the pooled views, in bytes.
+     */
+    public synchronized long getHeldBytes() {
+        return mBytes;
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+
+import com.red5pro.streaming.view.R5VideoView;
+
+/**
+ * Sizes and rotates the video view of a layout with render properties, so that the view keeps the bounds
+ * of its layout and a change of scale or rotation does not cause a layout pass.
+ *
+ * From API 24 the surface of a SurfaceView follows the scale of its view, and a target size with the
+ * aspect of the bounds is applied as an even scale from the top left corner. Any other target size is
+ * applied by resizing the view, as is every target size on earlier surfaces, which ignore the scale;
+ * scaling the two axes apart would stretch the video. Updates that leave the view as it is are skipped.
+ * All calls are made on the UI thread.
+ */
+public class VideoViewTransform {
+
+    private int mTargetWidth;
+    private int mTargetHeight;
+
+    private View mRotatedView;
+    private float mRotation;
+
+    private int mScaled;
+    private int mResized;
+    private int mRotated;
+    private int mSkipped;
+
+    public static boolean supportsSurfaceScale() {
+        // Build.VERSION_CODES.N, above the SDK the library compiles against.
+        return Build.VERSION.SDK_INT >= 24;
+    }
+
+    /**
+     * @param width The width to show the video at, or 0 to fill the layout.
+     * @param height The height to show the video at, or 0 to fill the layout.
+     */
+    public void setTargetSize(int width, int height) {
+        mTargetWidth = width;
+        mTargetHeight = height;
+    }
+
+    /**
+     * Applies the target size to the view for bounds of the given size, those of its layout.
+     */
+    public void applyScale(View view, int boundsWidth, int boundsHeight) {
+
+        boolean sized = mTargetWidth > 0 && mTargetHeight > 0 && boundsWidth > 0 && boundsHeight > 0;
+        if (!supportsSurfaceScale() || (sized && !hasAspect(boundsWidth, boundsHeight))) {
+            boolean unscaled = setScale(view, 1f);
+            boolean resized = resize(view, mTargetWidth, mTargetHeight);
+            if (unscaled || resized) {
+                mResized++;
+            } else {
+                mSkipped++;
+            }
+            return;
+        }
+
+        float scale = sized ? (float)mTargetWidth / boundsWidth : 1f;
+        boolean filled = resize(view, 0, 0);
+        if (setScale(view, scale) || filled) {
+            mScaled++;
+        } else {
+            mSkipped++;
+        }
+
+    }
+
+    /*
+     * Whether the target size has the aspect of the bounds, give or take the rounding of its height.
+     */
+    private boolean hasAspect(int boundsWidth, int boundsHeight) {
+        long difference = (long)mTargetWidth * boundsHeight - (long)mTargetHeight * boundsWidth;
+        return Math.abs(difference) <= boundsWidth;
+    }
+
+    private boolean setScale(View view, float scale) {
+
+        if (view.getScaleX() == scale && view.getScaleY() == scale
+                && view.getPivotX() == 0 && view.getPivotY() == 0) {
+            return false;
+        }
+        view.setPivotX(0);
+        view.setPivotY(0);
+        view.setScaleX(scale);
+        view.setScaleY(scale);
+        return true;
+
+    }
+
+    /*
+     * Sizes the view to the given size, or to fill the layout for 0.
+     */
+    private boolean resize(View view, int width, int height) {
+
+        ViewGroup.LayoutParams params = view.getLayoutParams();
+        int paramsWidth = width > 0 ? width : ViewGroup.LayoutParams.MATCH_PARENT;
+        int paramsHeight = height > 0 ? height : ViewGroup.LayoutParams.MATCH_PARENT;
+        if (params.width == paramsWidth && params.height == paramsHeight) {
+            return false;
+        }
+        params.width = paramsWidth;
+        params.height = paramsHeight;
+        view.setLayoutParams(params);
+        return true;
+
+    }
+
+    /**
+     * Rotates the stream of the view, unless it already is at that rotation.
+     */
+    public void applyRotation(R5VideoView view, float rotation) {
+
+        if (view == mRotatedView && rotation == mRotation) {
+            mSkipped++;
+            return;
+        }
+        view.setStreamRotation(rotation);
+        mRotatedView = view;
+        mRotation = rotation;
+        mRotated++;
+
+    }
+
+    public int getScaledCount() {
+        return mScaled;
+    }
+
+    public int getResizedCount() {
+        return mResized;
+    }
+
+    public int getRotatedCount() {
+        return mRotated;
+    }
+
+    public int getSkippedCount() {
+        return mSkipped;
+    }
+
+}
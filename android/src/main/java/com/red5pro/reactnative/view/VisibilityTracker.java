@@ -0,0 +1,167 @@
+package com.red5pro.reactnative.view;
+
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+/**
+ * Tracks whether a view can be seen: attached to a focused window and with enough of it within the screen.
+ *
+ * Changes are reported with hysteresis, both in space and in time. A view is shown again once a larger
+ * fraction of it is visible than the fraction under which it is considered hidden, and is only reported
+ * hidden after it stayed so for a while, so that fast scrolling past it or a transient loss of focus
+ * does not flap the decoder. All calls are made on the UI thread.
+ */
+public class VisibilityTracker implements ViewTreeObserver.OnScrollChangedListener,
+        ViewTreeObserver.OnGlobalLayoutListener {
+
+    public interface Listener {
+        void onVisibilityChanged(boolean visible);
+    }
+
+    public static final float SHOW_FRACTION = 0.1f;
+    public static final float HIDE_FRACTION = 0.01f;
+    public static final long SHOW_DELAY = 100; // ms
+    public static final long HIDE_DELAY = 750; // ms
+
+    private final View mView;
+    private final Listener mListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Rect mRect = new Rect();
+
+    private ViewTreeObserver mObserver;
+    private boolean mEnabled;
+    private boolean mAttached;
+    private boolean mWindowFocused = true;
+    private boolean mVisible = true;
+    private boolean mPendingVisible = true;
+
+    private final Runnable mReport = new Runnable() {
+        @Override
+        public void run() {
+            if (mPendingVisible != mVisible) {
+                mVisible = mPendingVisible;
+                mListener.onVisibilityChanged(mVisible);
+            }
+        }
+    };
+
+    public VisibilityTracker(View view, Listener listener) {
+        mView = view;
+        mListener = listener;
+    }
+
+    public void setEnabled(boolean enabled) {
+
+        if (mEnabled == enabled) {
+            return;
+        }
+        mEnabled = enabled;
+        if (enabled) {
+            register();
+            update();
+            return;
+        }
+
+        unregister();
+        mHandler.removeCallbacks(mReport);
+        mPendingVisible = true;
+        if (!mVisible) {
+            mVisible = true;
+            mListener.onVisibilityChanged(true);
+        }
+
+    }
+
+    public void setAttached(boolean attached) {
+        mAttached = attached;
+        if (attached) {
+            register();
+        } else {
+            unregister();
+        }
+        update();
+    }
+
+    public void setWindowFocused(boolean focused) {
+        mWindowFocused = focused;
+        update();
+    }
+
+    public boolean isVisible() {
+        return mVisible;
+    }
+
+    @Override
+    public void onScrollChanged() {
+        update();
+    }
+
+    @Override
+    public void onGlobalLayout() {
+        update();
+    }
+
+    private void update() {
+
+        if (!mEnabled) {
+            return;
+        }
+
+        boolean visible;
+        if (!mAttached || !mWindowFocused || mView.getWindowVisibility() != View.VISIBLE) {
+            visible = false;
+        } else {
+            float fraction = getVisibleFraction();
+            // Between the two fractions the view keeps the state it has.
+            visible = mPendingVisible ? fraction >= HIDE_FRACTION : fraction >= SHOW_FRACTION;
+        }
+
+        if (visible == mPendingVisible) {
+            return;
+        }
+        mPendingVisible = visible;
+        mHandler.removeCallbacks(mReport);
+        if (visible != mVisible) {
+            mHandler.postDelayed(mReport, visible ? SHOW_DELAY : HIDE_DELAY);
+        }
+
+    }
+
+    private float getVisibleFraction() {
+
+        long area = (long) mView.getWidth() * mView.getHeight();
+        if (area == 0 || !mView.isShown() || !mView.getGlobalVisibleRect(mRect)) {
+            return 0;
+        }
+        return (float) ((long) mRect.width() * mRect.height()) / area;
+
+    }
+
+    private void register() {
+
+        if (!mEnabled || !mAttached || mObserver != null) {
+            return;
+        }
+        mObserver = mView.getViewTreeObserver();
+        mObserver.addOnScrollChangedListener(this);
+        mObserver.addOnGlobalLayoutListener(this);
+
+    }
+
+    private void unregister() {
+
+        if (mObserver == null) {
+            return;
+        }
+        // The observer handed out at registration may have been merged into the window's since.
+        ViewTreeObserver observer = mObserver.isAlive() ? mObserver : mView.getViewTreeObserver();
+        observer.removeOnScrollChangedListener(this);
+        observer.removeOnGlobalLayoutListener(this);
+        mObserver = null;
+
+    }
+
+}
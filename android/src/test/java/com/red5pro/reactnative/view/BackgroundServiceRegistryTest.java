@@ -0,0 +1,312 @@
+package com.red5pro.reactnative.view;
+
+import android.app.Service;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.Intent;
+import android.content.ServiceConnection;
+import android.os.Binder;
+import android.os.IBinder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadow.api.Shadow;
+import org.robolectric.shadows.ShadowApplication;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sessions with background streaming on acquire the service when they start and release it when they stop.
+ * An app cycled quickly between background and foreground, restarting its sessions, does both many times
+ * between two turns of the main looper, which delivers the binding.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class BackgroundServiceRegistryTest {
+
+    private static final int CYCLES = 200;
+    private static final long TIMEOUT = 5; // s
+
+    public static class TestService extends Service {
+        @Override
+        public IBinder onBind(Intent intent) {
+            return null;
+        }
+    }
+
+    private static class RecordingClient implements BackgroundServiceRegistry.Client {
+        int available;
+        int lost;
+        IBinder binder;
+
+        @Override
+        public void onServiceAvailable(IBinder binder) {
+            available++;
+            this.binder = binder;
+        }
+
+        @Override
+        public void onServiceLost() {
+            lost++;
+            binder = null;
+        }
+    }
+
+    /*
+     * Stands in for the application context, counting the calls the registry makes on it.
+     */
+    private static class CountingContext extends ContextWrapper {
+        int starts;
+        int stops;
+        int binds;
+        int unbinds;
+
+        CountingContext(Context base) {
+            super(base);
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+
+        @Override
+        public synchronized ComponentName startService(Intent service) {
+            starts++;
+            return super.startService(service);
+        }
+
+        @Override
+        public synchronized boolean stopService(Intent service) {
+            stops++;
+            return super.stopService(service);
+        }
+
+        @Override
+        public synchronized boolean bindService(Intent service, ServiceConnection connection, int flags) {
+            binds++;
+            return super.bindService(service, connection, flags);
+        }
+
+        @Override
+        public synchronized void unbindService(ServiceConnection connection) {
+            unbinds++;
+            super.unbindService(connection);
+        }
+
+        synchronized int getBindings() {
+            return binds - unbinds;
+        }
+    }
+
+    private final IBinder mBinder = new Binder();
+    private final List<RecordingClient> mClients = new ArrayList<>();
+    private CountingContext mContext;
+
+    @Before
+    public void setUp() {
+        ShadowApplication application = Shadow.extract(RuntimeEnvironment.application);
+        application.setComponentNameAndServiceForBindService(
+                new ComponentName(RuntimeEnvironment.application, TestService.class), mBinder);
+        mContext = new CountingContext(RuntimeEnvironment.application);
+    }
+
+    @After
+    public void tearDown() {
+        // The registry is process-wide; leave it as the next test expects to find it.
+        for (RecordingClient client : mClients) {
+            BackgroundServiceRegistry.release(mContext, TestService.class, client);
+        }
+        ShadowLooper.idleMainLooper();
+    }
+
+    private RecordingClient client() {
+        RecordingClient client = new RecordingClient();
+        mClients.add(client);
+        return client;
+    }
+
+    private void acquire(RecordingClient client) {
+        BackgroundServiceRegistry.acquire(mContext, TestService.class, client);
+    }
+
+    private void release(RecordingClient client) {
+        BackgroundServiceRegistry.release(mContext, TestService.class, client);
+    }
+
+    @Test
+    public void sessionsShareOneStartAndBinding() {
+
+        RecordingClient first = client();
+        RecordingClient second = client();
+        acquire(first);
+        acquire(second);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(1, mContext.starts);
+        assertEquals(1, mContext.binds);
+        assertTrue(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(2, BackgroundServiceRegistry.getClientCount(TestService.class));
+        assertEquals(1, first.available);
+        assertEquals(1, second.available);
+        assertSame(mBinder, first.binder);
+        assertSame(mBinder, second.binder);
+
+        // A session acquiring a bound service gets the binder without a new binding.
+        RecordingClient third = client();
+        acquire(third);
+        ShadowLooper.idleMainLooper();
+        assertEquals(1, mContext.starts);
+        assertEquals(1, mContext.binds);
+        assertEquals(1, third.available);
+        assertSame(mBinder, third.binder);
+
+    }
+
+    @Test
+    public void lastReleaseUnbindsAndStops() {
+
+        RecordingClient first = client();
+        RecordingClient second = client();
+        acquire(first);
+        acquire(second);
+        ShadowLooper.idleMainLooper();
+
+        release(first);
+        assertTrue(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(0, mContext.unbinds);
+        assertEquals(0, mContext.stops);
+
+        release(second);
+        assertFalse(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(0, BackgroundServiceRegistry.getClientCount(TestService.class));
+        assertEquals(1, mContext.unbinds);
+        assertEquals(1, mContext.stops);
+
+    }
+
+    @Test
+    public void cyclingWhileAnotherSessionHoldsTheServiceKeepsItsBinding() {
+
+        RecordingClient holder = client();
+        RecordingClient cycling = client();
+        acquire(holder);
+        ShadowLooper.idleMainLooper();
+
+        for (int i = 0; i < CYCLES; i++) {
+            acquire(cycling);
+            release(cycling);
+        }
+        acquire(cycling);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(1, mContext.starts);
+        assertEquals(0, mContext.stops);
+        assertEquals(1, mContext.binds);
+        assertEquals(0, mContext.unbinds);
+        assertEquals(2, BackgroundServiceRegistry.getClientCount(TestService.class));
+        assertEquals(1, holder.available);
+        assertEquals(0, holder.lost);
+        // Deliveries queued for the released acquisitions are dropped; only the last one arrives.
+        assertEquals(1, cycling.available);
+        assertSame(mBinder, cycling.binder);
+
+    }
+
+    @Test
+    public void cyclingTheOnlySessionEndsWithOneLiveBinding() {
+
+        RecordingClient cycling = client();
+        for (int i = 0; i < CYCLES; i++) {
+            acquire(cycling);
+            release(cycling);
+        }
+        acquire(cycling);
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(CYCLES + 1, mContext.starts);
+        assertEquals(CYCLES, mContext.stops);
+        assertEquals(1, mContext.getBindings());
+        assertTrue(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(1, BackgroundServiceRegistry.getClientCount(TestService.class));
+        // The test context connects every binding it was asked for, even ones since unbound, so only
+        // the binder the session ends up holding is checked here.
+        assertSame(mBinder, cycling.binder);
+
+    }
+
+    @Test
+    public void cyclingThatEndsReleasedLeavesNothingRunning() {
+
+        RecordingClient cycling = client();
+        for (int i = 0; i < CYCLES; i++) {
+            acquire(cycling);
+            release(cycling);
+        }
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(CYCLES, mContext.starts);
+        assertEquals(CYCLES, mContext.stops);
+        assertEquals(0, mContext.getBindings());
+        assertFalse(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(0, BackgroundServiceRegistry.getClientCount(TestService.class));
+        // Bindings connecting after their release reach no session.
+        assertEquals(0, cycling.available);
+
+    }
+
+    @Test
+    public void sessionsCyclingOnTheirOwnThreadsLeaveNothingRunning() throws InterruptedException {
+
+        final int sessions = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(sessions);
+        for (int s = 0; s < sessions; s++) {
+            final RecordingClient session = client();
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < CYCLES; i++) {
+                        acquire(session);
+                        release(session);
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+        ShadowLooper.idleMainLooper();
+
+        assertTrue(mContext.starts > 0);
+        assertEquals(mContext.starts, mContext.stops);
+        assertEquals(0, mContext.getBindings());
+        assertFalse(BackgroundServiceRegistry.isStarted(TestService.class));
+        assertEquals(0, BackgroundServiceRegistry.getClientCount(TestService.class));
+        for (RecordingClient session : mClients) {
+            assertEquals(0, session.available);
+        }
+
+    }
+
+}
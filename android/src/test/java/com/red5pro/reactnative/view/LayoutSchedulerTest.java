@@ -0,0 +1,184 @@
+package com.red5pro.reactnative.view;
+
+import com.facebook.react.uimanager.ThemedReactContext;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * React requests layout dozens of times per frame while it animates a view; these count the passes
+ * that run for such bursts.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class LayoutSchedulerTest {
+
+    private static final int BURST = 50;
+
+    private static class CountingPass implements LayoutScheduler.Pass {
+        int runs;
+        boolean changed = true;
+
+        @Override
+        public boolean onLayoutPass() {
+            runs++;
+            return changed;
+        }
+    }
+
+    private static void nextFrame() {
+        ShadowLooper.idleMainLooper(16, TimeUnit.MILLISECONDS);
+    }
+
+    private static void burst(LayoutScheduler scheduler) {
+        for (int i = 0; i < BURST; i++) {
+            scheduler.request();
+        }
+    }
+
+    @Test
+    public void aBurstRunsOnePassOnTheNextFrame() {
+
+        CountingPass pass = new CountingPass();
+        LayoutScheduler scheduler = new LayoutScheduler(pass);
+
+        burst(scheduler);
+        assertEquals(0, pass.runs);
+        nextFrame();
+
+        assertEquals(1, pass.runs);
+        assertEquals(BURST, scheduler.getRequestCount());
+        assertEquals(BURST - 1, scheduler.getCoalescedCount());
+        assertEquals(1, scheduler.getPassCount());
+        assertEquals(0, scheduler.getSkippedCount());
+
+    }
+
+    @Test
+    public void burstsOverSeveralFramesRunOnePassPerFrame() {
+
+        CountingPass pass = new CountingPass();
+        LayoutScheduler scheduler = new LayoutScheduler(pass);
+
+        for (int frame = 0; frame < 10; frame++) {
+            burst(scheduler);
+            nextFrame();
+        }
+        nextFrame();
+
+        assertEquals(10, pass.runs);
+        assertEquals(10 * BURST, scheduler.getRequestCount());
+        assertEquals(10 * (BURST - 1), scheduler.getCoalescedCount());
+
+    }
+
+    @Test
+    public void aBurstFromAnotherThreadRunsOnePass() throws InterruptedException {
+
+        CountingPass pass = new CountingPass();
+        final LayoutScheduler scheduler = new LayoutScheduler(pass);
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                burst(scheduler);
+            }
+        });
+        thread.start();
+        thread.join();
+        nextFrame();
+        nextFrame();
+
+        assertEquals(1, pass.runs);
+        assertEquals(BURST - 1, scheduler.getCoalescedCount());
+
+    }
+
+    @Test
+    public void unchangedPassesCountAsSkipped() {
+
+        CountingPass pass = new CountingPass();
+        LayoutScheduler scheduler = new LayoutScheduler(pass);
+
+        burst(scheduler);
+        nextFrame();
+        pass.changed = false;
+        burst(scheduler);
+        nextFrame();
+
+        assertEquals(2, pass.runs);
+        assertEquals(1, scheduler.getPassCount());
+        assertEquals(1, scheduler.getSkippedCount());
+
+    }
+
+    @Test
+    public void cancelDropsThePendingPass() {
+
+        CountingPass pass = new CountingPass();
+        LayoutScheduler scheduler = new LayoutScheduler(pass);
+
+        burst(scheduler);
+        scheduler.cancel();
+        nextFrame();
+        assertEquals(0, pass.runs);
+
+        // Requests after a cancel schedule a pass again.
+        scheduler.request();
+        nextFrame();
+        assertEquals(1, pass.runs);
+
+    }
+
+    @Test
+    public void aViewLaysOutOncePerBurstAndSkipsUnchangedBounds() {
+
+        ThemedReactContext context = TestReactContexts.newThemedContext();
+        final int[] layouts = new int[1];
+        R5VideoViewLayout view = new R5VideoViewLayout(context, new R5SessionRegistry(R5SessionRegistry.UNLIMITED_SESSIONS)) {
+            @Override
+            protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+                layouts[0]++;
+                super.onLayout(changed, left, top, right, bottom);
+            }
+        };
+
+        try {
+            // React sets the bounds, then requests layout while it animates the view.
+            view.layout(0, 0, 320, 180);
+            layouts[0] = 0;
+            for (int i = 0; i < BURST; i++) {
+                view.requestLayout();
+            }
+            nextFrame();
+            assertEquals(1, layouts[0]);
+
+            // The bounds did not change since that pass, so the next burst lays out nothing.
+            for (int i = 0; i < BURST; i++) {
+                view.requestLayout();
+            }
+            nextFrame();
+            assertEquals(1, layouts[0]);
+
+            view.layout(0, 0, 640, 360);
+            layouts[0] = 0;
+            for (int i = 0; i < BURST; i++) {
+                view.requestLayout();
+            }
+            nextFrame();
+            assertEquals(1, layouts[0]);
+        } finally {
+            view.release();
+            ShadowLooper.idleMainLooper();
+        }
+
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class MediaThreadTest {
+
+    private static final long TIMEOUT = 5; // s
+
+    private MediaThread mThread;
+
+    @Before
+    public void setUp() {
+        mThread = new MediaThread("MediaThreadTest");
+    }
+
+    @After
+    public void tearDown() {
+        mThread.quit();
+    }
+
+    private void drain() throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    /*
+     * Holds the thread in a task until the returned latch is released.
+     */
+    private CountDownLatch block() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    release.await(TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        assertTrue(started.await(TIMEOUT, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private Runnable append(final List<Integer> order, final int value) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                order.add(value);
+            }
+        };
+    }
+
+    @Test
+    public void tasksRunInPostOrder() throws InterruptedException {
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        for (int i = 0; i < 200; i++) {
+            mThread.post(append(order, i));
+        }
+        drain();
+
+        assertEquals(200, order.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, (int)order.get(i));
+        }
+
+    }
+
+    @Test
+    public void tasksRunOnTheMediaThread() throws InterruptedException {
+
+        final boolean[] onThread = new boolean[2];
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                onThread[0] = mThread.isCurrentThread();
+                onThread[1] = Looper.myLooper() == Looper.getMainLooper();
+            }
+        });
+        drain();
+
+        assertTrue(onThread[0]);
+        assertFalse(onThread[1]);
+        assertFalse(mThread.isCurrentThread());
+
+    }
+
+    @Test
+    public void commandsFromSeveralThreadsKeepTheirOrder() throws InterruptedException {
+
+        final int threads = 4;
+        final int commands = 100;
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        CountDownLatch release = block();
+
+        Thread[] posters = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int poster = t;
+            posters[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < commands; i++) {
+                        mThread.post(append(order, poster * commands + i));
+                    }
+                }
+            });
+            posters[t].start();
+        }
+        for (Thread poster : posters) {
+            poster.join();
+        }
+        release.countDown();
+        drain();
+
+        assertEquals(threads * commands, order.size());
+        int[] last = new int[threads];
+        Arrays.fill(last, -1);
+        for (int value : order) {
+            int poster = value / commands;
+            int index = value % commands;
+            assertTrue("command " + index + " of thread " + poster + " out of order", index > last[poster]);
+            last[poster] = index;
+        }
+
+    }
+
+    @Test
+    public void delayedTasksRunAfterTasksPostedLater() throws InterruptedException {
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        mThread.postDelayed(append(order, 1), 50);
+        mThread.post(append(order, 0));
+        drain();
+        assertEquals(1, order.size());
+
+        // Delays follow the test clock, which only moves when advanced.
+        ShadowLooper.idleMainLooper(50, TimeUnit.MILLISECONDS);
+        drain();
+
+        assertEquals(2, order.size());
+        assertEquals(0, (int)order.get(0));
+        assertEquals(1, (int)order.get(1));
+
+    }
+
+    @Test
+    public void cancelledTasksDoNotRun() throws InterruptedException {
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        CountDownLatch release = block();
+        Runnable cancelled = append(order, 1);
+        mThread.post(append(order, 0));
+        mThread.post(cancelled);
+        mThread.post(append(order, 2));
+        mThread.cancel(cancelled);
+        release.countDown();
+        drain();
+
+        assertEquals(2, order.size());
+        assertEquals(0, (int)order.get(0));
+        assertEquals(2, (int)order.get(1));
+
+    }
+
+    @Test
+    public void quitRunsQueuedTasksThenDropsLaterOnes() throws InterruptedException {
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        CountDownLatch release = block();
+        mThread.post(append(order, 0));
+        mThread.quit();
+        mThread.post(append(order, 1));
+        release.countDown();
+        mThread.getHandler().getLooper().getThread().join(TIMEOUT * 1000);
+
+        assertEquals(1, order.size());
+        assertEquals(0, (int)order.get(0));
+
+    }
+
+    @Test
+    public void postsAfterQuitAreRefused() throws InterruptedException {
+
+        CountDownLatch release = block();
+        assertTrue(mThread.post(append(new ArrayList<Integer>(), 0)));
+        mThread.quit();
+        // Still queued behind the blocked task, but it would never run.
+        assertFalse(mThread.post(append(new ArrayList<Integer>(), 1)));
+        release.countDown();
+
+    }
+
+    @Test
+    public void runOnUiAndWaitBlocksTheMediaTaskUntilTheUiTaskRan() throws InterruptedException {
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch done = new CountDownLatch(1);
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                mThread.runOnUiAndWait(new Runnable() {
+                    @Override
+                    public void run() {
+                        order.add(Looper.myLooper() == Looper.getMainLooper() ? "ui" : "not ui");
+                    }
+                });
+                order.add("media");
+                done.countDown();
+            }
+        });
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                order.add("next");
+            }
+        });
+
+        // The test runs on the main looper, which is paused until idled.
+        long deadline = System.currentTimeMillis() + TIMEOUT * 1000;
+        while (done.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            ShadowLooper.idleMainLooper();
+            done.await(10, TimeUnit.MILLISECONDS);
+        }
+        drain();
+
+        assertEquals(3, order.size());
+        assertEquals("ui", order.get(0));
+        assertEquals("media", order.get(1));
+        assertEquals("next", order.get(2));
+
+    }
+
+    @Test
+    public void runOnUiAndWaitRunsInlineOnTheUiThread() {
+
+        final boolean[] ran = new boolean[1];
+        mThread.runOnUiAndWait(new Runnable() {
+            @Override
+            public void run() {
+                ran[0] = true;
+            }
+        });
+        assertTrue(ran[0]);
+
+    }
+
+    @Test
+    public void postToUiRunsInPostOrder() throws InterruptedException {
+
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        mThread.post(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 10; i++) {
+                    mThread.postToUi(append(order, i));
+                }
+            }
+        });
+        drain();
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(10, order.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, (int)order.get(i));
+        }
+
+    }
+
+}
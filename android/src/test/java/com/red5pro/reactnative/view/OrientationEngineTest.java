@@ -0,0 +1,181 @@
+package com.red5pro.reactnative.view;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.view.Surface;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class OrientationEngineTest {
+
+    private static final long TIMEOUT = 5; // s
+
+    private static final int[] ROTATIONS = {
+            Surface.ROTATION_0, Surface.ROTATION_90, Surface.ROTATION_180, Surface.ROTATION_270
+    };
+
+    // Standard mounts, and ones some devices ship with.
+    private static final int[] SENSOR_ORIENTATIONS = { 90, 270, 0, 180 };
+
+    /*
+     * The legacy opens turned the camera with the display for a front camera, and against it for a back camera.
+     */
+    private static int legacyCameraOrientation(int sensorOrientation, boolean backfacing, int rotation) {
+        int degrees = rotation * 90;
+        return (sensorOrientation + (backfacing ? 360 - degrees : degrees)) % 360;
+    }
+
+    @Test
+    public void cameraOrientationMatchesLegacyForEveryFacingAndRotation() {
+
+        for (int sensorOrientation : SENSOR_ORIENTATIONS) {
+            for (int rotation : ROTATIONS) {
+                for (boolean backfacing : new boolean[] { false, true }) {
+                    assertEquals("sensor " + sensorOrientation + ", rotation " + rotation + ", back " + backfacing,
+                            legacyCameraOrientation(sensorOrientation, backfacing, rotation),
+                            OrientationEngine.getCameraOrientation(sensorOrientation, backfacing, rotation));
+                }
+            }
+        }
+
+    }
+
+    @Test
+    public void displayOrientationTurnsAgainstTheDisplay() {
+
+        for (int sensorOrientation : SENSOR_ORIENTATIONS) {
+            for (int rotation : ROTATIONS) {
+                assertEquals((sensorOrientation + 360 - rotation * 90) % 360,
+                        OrientationEngine.getDisplayOrientation(sensorOrientation, rotation));
+            }
+        }
+
+    }
+
+    @Test
+    public void standardMounts() {
+
+        // Front camera, sensor at 270.
+        assertEquals(270, OrientationEngine.getCameraOrientation(270, false, Surface.ROTATION_0));
+        assertEquals(0, OrientationEngine.getCameraOrientation(270, false, Surface.ROTATION_90));
+        assertEquals(90, OrientationEngine.getCameraOrientation(270, false, Surface.ROTATION_180));
+        assertEquals(180, OrientationEngine.getCameraOrientation(270, false, Surface.ROTATION_270));
+
+        // Back camera, sensor at 90.
+        assertEquals(90, OrientationEngine.getCameraOrientation(90, true, Surface.ROTATION_0));
+        assertEquals(0, OrientationEngine.getCameraOrientation(90, true, Surface.ROTATION_90));
+        assertEquals(270, OrientationEngine.getCameraOrientation(90, true, Surface.ROTATION_180));
+        assertEquals(180, OrientationEngine.getCameraOrientation(90, true, Surface.ROTATION_270));
+
+    }
+
+    @Test
+    public void sensorOrientationIsNotAssumed() {
+
+        // A back camera mounted at 270, as on some devices, differs from the standard mount by half a turn.
+        for (int rotation : ROTATIONS) {
+            assertEquals((OrientationEngine.getCameraOrientation(90, true, rotation) + 180) % 360,
+                    OrientationEngine.getCameraOrientation(270, true, rotation));
+        }
+
+    }
+
+    /*
+     * Runs what was posted to the handler so far, from a thread other than its own.
+     */
+    private static void drain(Handler handler) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(1);
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+    }
+
+    private static OrientationEngine newEngine(Handler handler) {
+        return new OrientationEngine(RuntimeEnvironment.application, handler, new OrientationEngine.Listener() {
+            @Override
+            public void onRotationSettled(int rotation) {
+            }
+        });
+    }
+
+    @Test
+    public void startAndStopFromOtherThreadsRunInOrder() throws InterruptedException {
+
+        HandlerThread thread = new HandlerThread("OrientationEngineTest");
+        thread.start();
+        try {
+            Handler handler = new Handler(thread.getLooper());
+            OrientationEngine engine = newEngine(handler);
+
+            engine.start();
+            drain(handler);
+            assertTrue(engine.isStarted());
+
+            engine.stop();
+            engine.start();
+            drain(handler);
+            assertTrue(engine.isStarted());
+
+            engine.stop();
+            drain(handler);
+            assertFalse(engine.isStarted());
+        } finally {
+            thread.quit();
+        }
+
+    }
+
+    @Test
+    public void aStartQueuedBeforeReleaseDoesNothing() throws InterruptedException {
+
+        HandlerThread thread = new HandlerThread("OrientationEngineTest");
+        thread.start();
+        try {
+            final Handler handler = new Handler(thread.getLooper());
+            final OrientationEngine engine = newEngine(handler);
+
+            // A publish queued on the media thread starts the engine after the view was released.
+            final CountDownLatch release = new CountDownLatch(1);
+            handler.post(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        release.await(TIMEOUT, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    engine.start();
+                }
+            });
+            engine.release();
+            release.countDown();
+            drain(handler);
+            assertFalse(engine.isStarted());
+
+            engine.start();
+            drain(handler);
+            assertFalse(engine.isStarted());
+        } finally {
+            thread.quit();
+        }
+
+    }
+
+}
@@ -0,0 +1,257 @@
+package com.red5pro.reactnative.view;
+
+import com.facebook.react.uimanager.ThemedReactContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Mounts dozens of views on one view manager, as a large conference grid would, and checks that each keeps
+ * its own session and that dropping views tears their sessions down without touching the others.
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+public class R5SessionRegistryStressTest {
+
+    private static final int VIEWS = 48;
+    private static final int MAX_SESSIONS = 9;
+    private static final long TIMEOUT = 5; // s
+
+    private ThemedReactContext mContext;
+    private R5VideoViewManager mManager;
+    private final List<R5VideoViewLayout> mMounted = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+
+        mContext = TestReactContexts.newThemedContext();
+        mManager = new R5VideoViewManager(MAX_SESSIONS);
+
+    }
+
+    @After
+    public void tearDown() {
+        for (R5VideoViewLayout view : mMounted) {
+            if (view.getSessionState() != SessionState.RELEASED) {
+                mManager.onDropViewInstance(view);
+            }
+        }
+        ShadowLooper.idleMainLooper();
+    }
+
+    private R5VideoViewLayout mount(int tag) {
+        R5VideoViewLayout view = mManager.createViewInstance(mContext);
+        view.setId(tag);
+        mManager.onAfterUpdateTransaction(view);
+        mMounted.add(view);
+        return view;
+    }
+
+    private void mountAll() {
+        for (int tag = 1; tag <= VIEWS; tag++) {
+            mount(tag);
+        }
+    }
+
+    /*
+     * @return the thread each session ran a task on, once all of them have.
+     */
+    private List<Thread> getMediaThreads(List<R5VideoViewLayout> views) throws InterruptedException {
+
+        final Thread[] threads = new Thread[views.size()];
+        final CountDownLatch done = new CountDownLatch(views.size());
+        for (int i = 0; i < views.size(); i++) {
+            final int index = i;
+            views.get(i).runOnMediaThread(new Runnable() {
+                @Override
+                public void run() {
+                    threads[index] = Thread.currentThread();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+        List<Thread> list = new ArrayList<>();
+        for (Thread thread : threads) {
+            list.add(thread);
+        }
+        return list;
+
+    }
+
+    @Test
+    public void everyViewIsRoutedByItsTag() {
+
+        mountAll();
+
+        R5SessionRegistry registry = mManager.getSessionRegistry();
+        assertEquals(VIEWS, registry.size());
+        Set<R5VideoViewLayout> distinct = new HashSet<>();
+        for (int tag = 1; tag <= VIEWS; tag++) {
+            R5VideoViewLayout view = mManager.getSession(tag);
+            assertSame(mMounted.get(tag - 1), view);
+            assertEquals(SessionState.IDLE, view.getSessionState());
+            distinct.add(view);
+        }
+        assertEquals(VIEWS, distinct.size());
+        assertNull(mManager.getSession(VIEWS + 1));
+
+    }
+
+    @Test
+    public void sessionsRunOnTheirOwnMediaThreads() throws InterruptedException {
+
+        mountAll();
+
+        List<Thread> threads = getMediaThreads(mMounted);
+        assertEquals(VIEWS, new HashSet<>(threads).size());
+
+        // A session held up in a command does not hold up any other.
+        final CountDownLatch release = new CountDownLatch(1);
+        mMounted.get(0).runOnMediaThread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    release.await(TIMEOUT, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        getMediaThreads(mMounted.subList(1, VIEWS));
+        release.countDown();
+
+    }
+
+    @Test
+    public void sessionCapHoldsUnderConcurrentRequests() throws InterruptedException {
+
+        mountAll();
+
+        final R5SessionRegistry registry = mManager.getSessionRegistry();
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(VIEWS);
+        final AtomicInteger acquired = new AtomicInteger();
+        for (int i = 0; i < VIEWS; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    if (registry.acquireSlot()) {
+                        acquired.incrementAndGet();
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        assertTrue(done.await(TIMEOUT, TimeUnit.SECONDS));
+
+        assertEquals(MAX_SESSIONS, acquired.get());
+        assertEquals(MAX_SESSIONS, registry.getActiveSessionCount());
+        for (int i = 0; i < MAX_SESSIONS; i++) {
+            registry.releaseSlot();
+        }
+        assertEquals(0, registry.getActiveSessionCount());
+        assertTrue(registry.acquireSlot());
+        registry.releaseSlot();
+
+    }
+
+    @Test
+    public void droppingViewsTearsTheirSessionsDown() throws InterruptedException {
+
+        mountAll();
+        List<Thread> threads = getMediaThreads(mMounted);
+
+        for (R5VideoViewLayout view : mMounted) {
+            mManager.onDropViewInstance(view);
+        }
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(0, mManager.getSessionRegistry().size());
+        assertEquals(0, mManager.getSessionRegistry().getActiveSessionCount());
+        for (R5VideoViewLayout view : mMounted) {
+            assertEquals(SessionState.RELEASED, view.getSessionState());
+            assertNull(view.getVideoView());
+        }
+        for (Thread thread : threads) {
+            thread.join(TIMEOUT * 1000);
+            assertFalse(thread.getName() + " still running", thread.isAlive());
+        }
+
+    }
+
+    @Test
+    public void droppingSomeViewsLeavesTheOthersRunning() throws InterruptedException {
+
+        mountAll();
+        List<R5VideoViewLayout> dropped = new ArrayList<>();
+        List<R5VideoViewLayout> kept = new ArrayList<>();
+        for (int i = 0; i < VIEWS; i++) {
+            (i % 2 == 0 ? dropped : kept).add(mMounted.get(i));
+        }
+        List<Thread> droppedThreads = getMediaThreads(dropped);
+
+        for (R5VideoViewLayout view : dropped) {
+            mManager.onDropViewInstance(view);
+        }
+        ShadowLooper.idleMainLooper();
+
+        assertEquals(kept.size(), mManager.getSessionRegistry().size());
+        for (R5VideoViewLayout view : kept) {
+            assertSame(view, mManager.getSession(view.getId()));
+            assertEquals(SessionState.IDLE, view.getSessionState());
+        }
+        for (R5VideoViewLayout view : dropped) {
+            assertNull(mManager.getSession(view.getId()));
+        }
+        for (Thread thread : droppedThreads) {
+            thread.join(TIMEOUT * 1000);
+            assertFalse(thread.isAlive());
+        }
+        // The remaining sessions still take commands.
+        assertEquals(kept.size(), getMediaThreads(kept).size());
+
+    }
+
+    @Test
+    public void aDroppedViewDoesNotUnregisterTheViewThatReusedItsTag() {
+
+        R5VideoViewLayout first = mount(7);
+        R5VideoViewLayout second = mount(7);
+        assertNotSame(first, second);
+        assertSame(second, mManager.getSession(7));
+
+        mManager.onDropViewInstance(first);
+
+        assertSame(second, mManager.getSession(7));
+        assertEquals(1, mManager.getSessionRegistry().size());
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.red5pro.reactnative.view;
+
+import com.facebook.react.bridge.JavaScriptModule;
+import com.facebook.react.bridge.ReactApplicationContext;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.events.RCTEventEmitter;
+
+import org.robolectric.RuntimeEnvironment;
+
+/**
+ * React contexts for the views under test, without a JS runtime behind them.
+ */
+final class TestReactContexts {
+
+    private TestReactContexts() {
+    }
+
+    /**
+     * @return a context whose events go nowhere.
+     */
+    static ThemedReactContext newThemedContext() {
+
+        final RCTEventEmitter emitter = new RCTEventEmitter() {
+            @Override
+            public void receiveEvent(int targetTag, String eventName, WritableMap event) {
+            }
+
+            @Override
+            public void receiveTouches(String eventName, WritableArray touches, ReadableArray changedIndices) {
+            }
+        };
+        ReactApplicationContext application = new ReactApplicationContext(RuntimeEnvironment.application);
+        return new ThemedReactContext(application, application) {
+            @Override
+            public <T extends JavaScriptModule> T getJSModule(Class<T> jsInterface) {
+                return jsInterface.cast(emitter);
+            }
+        };
+
+    }
+
+}
@@ -16,6 +16,7 @@ import {
 
 import Publisher from './src/views/publisher'
 import Subscriber from './src/views/subscriber'
+import Tiles from './src/views/tiles'
 
 export default class App extends React.Component {
   constructor (props) {
@@ -25,6 +26,7 @@ export default class App extends React.Component {
     this.onPublish = this.onPublish.bind(this)
     this.onSubscribe = this.onSubscribe.bind(this)
     this.onStop = this.onStop.bind(this)
+    this.onTiles = this.onTiles.bind(this)
 
     // UI Actions.
     this.onHostChange = this.onHostChange.bind(this)
@@ -32,6 +34,7 @@ export default class App extends React.Component {
     this.onStreamNameChange = this.onStreamNameChange.bind(this)
     this.onEnableBackgroundStreamingChange = this.onEnableBackgroundStreamingChange.bind(this)
     this.onUseAuthenticationChange = this.onUseAuthenticationChange.bind(this)
+    this.onUseTextureViewChange = this.onUseTextureViewChange.bind(this)
     this.onUsernameChange = this.onUsernameChange.bind(this)
     this.onPasswordChange = this.onPasswordChange.bind(this)
 
@@ -40,7 +43,9 @@ export default class App extends React.Component {
       hasPermissions: false,
       hasStarted: false,
       isPublisher: false,
+      tileCount: 0,
       useAuthentication: false,
+      useTextureView: false,
       isInErrorState: false,
       hostFieldProps: {
         placeholder: 'Host',
@@ -129,6 +134,7 @@ export default class App extends React.Component {
   render () {
     const {
       useAuthentication,
+      useTextureView,
       streamProps: {
         enableBackgroundStreaming
       }
@@ -141,7 +147,17 @@ export default class App extends React.Component {
     const assignPasswordRef = (password) => { this.password_field = password }
 
     if (this.state.hasPermissions && this.state.hasStarted) {
-      if (this.state.isPublisher) {
+      if (this.state.tileCount > 0) {
+        return (
+          <Tiles
+            streamProps={this.state.streamProps}
+            tileCount={this.state.tileCount}
+            useTextureView={useTextureView}
+            onStop={this.onStop}
+          />
+        )
+      }
+      else if (this.state.isPublisher) {
         return (
           <Publisher
             streamProps={this.state.streamProps}
@@ -225,6 +241,21 @@ export default class App extends React.Component {
               title='Publish'
               accessibilityLabel='Publish'
             />
+            <Text style={styles.text}>OR</Text>
+            <CheckBox title='Use TextureView (Android)'
+              checked={useTextureView}
+              onPress={this.onUseTextureViewChange}
+            />
+            <View style={styles.tiles}>
+              {[1, 4, 9].map((count) => (
+                <Button
+                  key={count}
+                  onPress={() => this.onTiles(count)}
+                  title={`${count} Tile${count > 1 ? 's' : ''}`}
+                  accessibilityLabel={`Subscribe in ${count} tiles`}
+                />
+              ))}
+            </View>
           </View>
           }
         </View>
@@ -286,6 +317,16 @@ export default class App extends React.Component {
     })
   }
 
+  onTiles (count) {
+    const stateUpdate = this.getStateFromProps()
+    this.setState({
+      ...stateUpdate,
+      isPublisher: false,
+      tileCount: count,
+      hasStarted: true
+    })
+  }
+
   onPublish (event) {
     const stateUpdate = this.getStateFromProps()
     this.setState({
@@ -344,6 +385,13 @@ export default class App extends React.Component {
     })
   }
 
+  onUseTextureViewChange () {
+    const { useTextureView } = this.state
+    this.setState({
+      useTextureView: !useTextureView
+    })
+  }
+
   onUseAuthenticationChange () {
     const { useAuthentication } = this.state
     this.setState({
@@ -355,6 +403,7 @@ export default class App extends React.Component {
     console.log('App:onStop()')
     this.setState({
       hasStarted: false,
+      tileCount: 0,
       isInErrorState: false
     })
   }
@@ -384,6 +433,10 @@ const styles = StyleSheet.create({
     borderBottomColor: 'gray',
     borderBottomWidth: 1
   },
+  tiles: {
+    flexDirection: 'row',
+    justifyContent: 'space-around'
+  },
   text: {
     left: 0,
     right: 0,
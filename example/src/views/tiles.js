@@ -0,0 +1,174 @@
+import React from 'react'
+import {
+  findNodeHandle,
+  Button,
+  StyleSheet,
+  Text,
+  View
+} from 'react-native'
+import {
+  R5VideoView,
+  subscribe,
+  unsubscribe,
+  setPlaybackVolume,
+  getEventCounters
+} from 'react-native-red5pro'
+
+// Render counters are sampled once the tiles have settled, and again at the end of the window.
+const WARMUP = 10000 // ms
+const WINDOW = 30000 // ms
+
+const styles = StyleSheet.create({
+  container: {
+    flex: 1,
+    backgroundColor: 'black'
+  },
+  row: {
+    flex: 1,
+    flexDirection: 'row'
+  },
+  tile: {
+    flex: 1,
+    margin: 1,
+    backgroundColor: 'black'
+  },
+  toast: {
+    color: 'white',
+    padding: 10,
+    textAlign: 'center',
+    backgroundColor: 'rgba(0, 0, 0, 1.0)'
+  },
+  button: {
+    height: 40,
+    backgroundColor: 'blue',
+    color: 'white'
+  }
+})
+
+/*
+ * Subscribes the same stream in a grid of 1, 4 or 9 tiles, to compare the SurfaceView and TextureView render
+ * modes. The render counters only cover texture views; see the Benchmarks section of the README for measuring
+ * both modes with the platform tools.
+ */
+export default class Tiles extends React.Component {
+  constructor (props) {
+    super(props)
+
+    this.tiles = []
+    this.state = {
+      summary: 'warming up...'
+    }
+  }
+
+  componentDidMount () {
+    this.warmupTimer = setTimeout(() => {
+      this.sample().then((start) => {
+        this.setState({ summary: 'measuring...' })
+        this.windowTimer = setTimeout(() => {
+          this.sample().then((end) => this.report(start, end))
+        }, WINDOW)
+      })
+    }, WARMUP)
+  }
+
+  componentWillUnmount () {
+    clearTimeout(this.warmupTimer)
+    clearTimeout(this.windowTimer)
+    this.tiles.forEach((tile) => {
+      const nodeHandle = findNodeHandle(tile)
+      if (nodeHandle) {
+        unsubscribe(nodeHandle)
+      }
+    })
+  }
+
+  render () {
+    const {
+      streamProps,
+      tileCount,
+      useTextureView,
+      onStop
+    } = this.props
+
+    const columns = Math.round(Math.sqrt(tileCount))
+    const rows = []
+    for (let row = 0; row < columns; row++) {
+      const tiles = []
+      for (let column = 0; column < columns; column++) {
+        const index = row * columns + column
+        const setup = {
+          ...streamProps,
+          configuration: {
+            ...streamProps.configuration,
+            key: `${streamProps.configuration.key}-${index}`
+          },
+          showDebugView: false,
+          useTextureView: useTextureView,
+          style: styles.tile,
+          onConfigured: () => this.onConfigured(index)
+        }
+        tiles.push(
+          <R5VideoView
+            {...setup}
+            key={index}
+            ref={(video) => { this.tiles[index] = video }}
+          />
+        )
+      }
+      rows.push(<View key={row} style={styles.row}>{tiles}</View>)
+    }
+
+    return (
+      <View style={styles.container}>
+        {rows}
+        <Text style={styles.toast}>{this.state.summary}</Text>
+        <Button
+          style={styles.button}
+          onPress={onStop}
+          title='Stop'
+          accessibilityLabel='Stop'
+        />
+      </View>
+    )
+  }
+
+  onConfigured (index) {
+    const {
+      streamProps: {
+        configuration: {
+          streamName
+        }
+      }
+    } = this.props
+    const nodeHandle = findNodeHandle(this.tiles[index])
+    if (!nodeHandle) {
+      return
+    }
+    subscribe(nodeHandle, streamName)
+    // Every tile plays the same stream; keep one audible at most.
+    setPlaybackVolume(nodeHandle, index === 0 ? 100 : 0)
+  }
+
+  sample () {
+    // The render counters are shared by all views, so any tile reports them.
+    return getEventCounters(findNodeHandle(this.tiles[0]))
+      .then((counters) => ({ time: Date.now(), render: counters.render }))
+  }
+
+  report (start, end) {
+    const { tileCount, useTextureView } = this.props
+    const frames = end.render.frames - start.render.frames
+    const seconds = (end.time - start.time) / 1000
+    // The renderer keeps a mean over all frames; take the one of the window.
+    const meanFrameTime = frames > 0
+      ? (end.render.meanFrameTime * end.render.frames - start.render.meanFrameTime * start.render.frames) / frames
+      : 0
+    const summary = useTextureView
+      ? `${tileCount} texture tiles: ${(frames / seconds).toFixed(1)} frames/s, ` +
+        `mean ${meanFrameTime.toFixed(2)} ms, max ${end.render.maxFrameTime.toFixed(2)} ms, ` +
+        `${end.render.surfacePixels} px`
+      : `${tileCount} surface tiles: no render counters, use dumpsys`
+    console.log(`Tiles:report :: ${summary}`)
+    this.setState({ summary: summary })
+  }
+}
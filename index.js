@@ -15,14 +15,30 @@ import {
   updateScaleSize,
   setPlaybackVolume,
   muteAudio, unmuteAudio,
-  muteVideo, unmuteVideo
+  muteVideo, unmuteVideo,
+  requestStartupTiming,
+  preload
 } from './src/commands/R5VideoView.commands'
 
+import {
+  getStateSync, getLiveStatsSync, getStreamStatsSync, getStartupTimingSync, getEventCountersSync,
+  getLiveStatsArraySync, liveStatsFields, sessionStates,
+  getState, getLiveStats, getStreamStats, getStartupTiming, getEventCounters,
+  setPublishBitrate, setStreamPlaybackVolume,
+  muteStreamAudio, unmuteStreamAudio, muteStreamVideo, unmuteStreamVideo
+} from './src/module/R5StreamModule'
+
 module.exports = {
   R5VideoView,
   subscribe, unsubscribe, preview, publish, unpublish, swapCamera,
   updateScaleMode, updateScaleSize, setPlaybackVolume,
   muteAudio, unmuteAudio, muteVideo, unmuteVideo,
+  requestStartupTiming, preload,
+  getStateSync, getLiveStatsSync, getStreamStatsSync, getStartupTimingSync, getEventCountersSync,
+  getLiveStatsArraySync, liveStatsFields, sessionStates,
+  getState, getLiveStats, getStreamStats, getStartupTiming, getEventCounters,
+  setPublishBitrate, setStreamPlaybackVolume,
+  muteStreamAudio, unmuteStreamAudio, muteStreamVideo, unmuteStreamVideo,
   R5AudioMode, R5LogLevel, R5PublishType, R5ScaleMode
 }
 
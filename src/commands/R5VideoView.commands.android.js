@@ -52,3 +52,11 @@ export const unmuteVideo = (handle) => {
 export const setPlaybackVolume = (handle, value) => {
   UIManager.dispatchViewManagerCommand(handle, Commands.setPlaybackVolume, [value])
 }
+
+export const requestStartupTiming = (handle) => {
+  UIManager.dispatchViewManagerCommand(handle, Commands.requestStartupTiming, [])
+}
+
+export const preload = (handle, streamNames) => {
+  UIManager.dispatchViewManagerCommand(handle, Commands.preload, [streamNames])
+}
@@ -50,3 +50,9 @@ export const unmuteVideo = (handle) => {
 export const setPlaybackVolume = (handle, value) => {
   UIManager.dispatchViewManagerCommand(handle, UIManager.R5VideoView.Commands.setPlaybackVolume, [value])
 }
+
+// Android only.
+export const requestStartupTiming = (handle) => {}
+
+// Android only.
+export const preload = (handle, streamNames) => {}
@@ -0,0 +1,59 @@
+import { NativeModules } from 'react-native'
+const { R5StreamModule } = NativeModules
+
+// Blocking synchronous native methods are unavailable while debugging JS remotely.
+const canCallSync = () => typeof global.nativeCallSyncHook !== 'undefined'
+
+const read = (syncMethod, asyncMethod, handle) => {
+  if (canCallSync()) {
+    return Promise.resolve(R5StreamModule[syncMethod](handle))
+  }
+  return R5StreamModule[asyncMethod](handle)
+}
+
+const readSync = (syncMethod, handle) => {
+  return canCallSync() ? R5StreamModule[syncMethod](handle) : null
+}
+
+// Synchronous getters, returning null when unavailable.
+export const getStateSync = (handle) => readSync('getStateSync', handle)
+export const getLiveStatsSync = (handle) => readSync('getLiveStatsSync', handle)
+export const getLiveStatsArraySync = (handle) => readSync('getLiveStatsArraySync', handle)
+export const getStreamStatsSync = (handle) => readSync('getStreamStatsSync', handle)
+export const getStartupTimingSync = (handle) => readSync('getStartupTimingSync', handle)
+export const getEventCountersSync = (handle) => readSync('getEventCountersSync', handle)
+
+// Order of the values returned by getLiveStatsArraySync, and the states its first value indexes.
+export const liveStatsFields = R5StreamModule.LIVE_STATS_FIELDS
+export const sessionStates = R5StreamModule.STATES
+
+// Promise-based getters, synchronous underneath where possible.
+export const getState = (handle) => read('getStateSync', 'getState', handle)
+export const getLiveStats = (handle) => read('getLiveStatsSync', 'getLiveStats', handle)
+export const getStreamStats = (handle) => read('getStreamStatsSync', 'getStreamStats', handle)
+export const getStartupTiming = (handle) => read('getStartupTimingSync', 'getStartupTiming', handle)
+export const getEventCounters = (handle) => read('getEventCountersSync', 'getEventCounters', handle)
+
+export const setPublishBitrate = (handle, bitrate) => {
+  R5StreamModule.setPublishBitrate(handle, bitrate)
+}
+
+export const setStreamPlaybackVolume = (handle, volume) => {
+  R5StreamModule.setPlaybackVolume(handle, volume)
+}
+
+export const muteStreamAudio = (handle) => {
+  R5StreamModule.muteAudio(handle)
+}
+
+export const unmuteStreamAudio = (handle) => {
+  R5StreamModule.unmuteAudio(handle)
+}
+
+export const muteStreamVideo = (handle) => {
+  R5StreamModule.muteVideo(handle)
+}
+
+export const unmuteStreamVideo = (handle) => {
+  R5StreamModule.unmuteVideo(handle)
+}
@@ -0,0 +1,25 @@
+// Android only.
+const unavailable = () => Promise.reject(new Error('R5StreamModule is only available on Android.'))
+
+export const getStateSync = (handle) => null
+export const getLiveStatsSync = (handle) => null
+export const getLiveStatsArraySync = (handle) => null
+export const getStreamStatsSync = (handle) => null
+export const getStartupTimingSync = (handle) => null
+export const getEventCountersSync = (handle) => null
+
+export const liveStatsFields = []
+export const sessionStates = []
+
+export const getState = (handle) => unavailable()
+export const getLiveStats = (handle) => unavailable()
+export const getStreamStats = (handle) => unavailable()
+export const getStartupTiming = (handle) => unavailable()
+export const getEventCounters = (handle) => unavailable()
+
+export const setPublishBitrate = (handle, bitrate) => {}
+export const setStreamPlaybackVolume = (handle, volume) => {}
+export const muteStreamAudio = (handle) => {}
+export const unmuteStreamAudio = (handle) => {}
+export const muteStreamVideo = (handle) => {}
+export const unmuteStreamVideo = (handle) => {}
@@ -6,6 +6,21 @@ import R5AudioMode from '../enum/R5VideoView.audiomode'
 import R5PublishType from '../enum/R5VideoView.publishtype'
 import { requireNativeComponent, ViewPropTypes } from 'react-native'
 
+// Props the native view applies at any time, so that changing one after mount re-renders the view.
+const runtimeProps = [
+  'autoReconnect',
+  'reconnectMaxAttempts',
+  'reconnectBaseDelay',
+  'reconnectMaxDelay',
+  'backgroundStreamName',
+  'suspendWhenHidden',
+  'decodePriority',
+  'preloadLimit',
+  'statsInterval',
+  'statsHistorySize',
+  'statsReportInterval'
+]
+
 class R5VideoView extends React.Component {
 
   constructor (props) {
@@ -16,6 +31,13 @@ class R5VideoView extends React.Component {
     this._onSubscriberStreamStatus = this._onSubscriberStreamStatus.bind(this)
     this._onUnpublishNotification = this._onUnpublishNotification.bind(this)
     this._onUnsubscribeNotification = this._onUnsubscribeNotification.bind(this)
+    this._onReconnectStatus = this._onReconnectStatus.bind(this)
+    this._onStartupTiming = this._onStartupTiming.bind(this)
+    this._onStreamStats = this._onStreamStats.bind(this)
+    this._onVideoResume = this._onVideoResume.bind(this)
+    this._onVisibilityChange = this._onVisibilityChange.bind(this)
+    this._onDecoderSlot = this._onDecoderSlot.bind(this)
+    this._onEventBatch = this._onEventBatch.bind(this)
     this._refHandle = this._refHandle.bind(this)
 
     this.state = {
@@ -27,7 +49,7 @@ class R5VideoView extends React.Component {
     if (this.state.configured !== nextState.configured) {
       return true
     }
-    return false
+    return runtimeProps.some((name) => this.props[name] !== nextProps[name])
   }
 
   _onMetaData = (event) => {
@@ -72,6 +94,72 @@ class R5VideoView extends React.Component {
     this.props.onUnpublishNotification(event)
   }
 
+  _onReconnectStatus = (event) => {
+    if (!this.props.onReconnectStatus) {
+      return
+    }
+    this.props.onReconnectStatus(event)
+  }
+
+  _onStartupTiming = (event) => {
+    if (!this.props.onStartupTiming) {
+      return
+    }
+    this.props.onStartupTiming(event)
+  }
+
+  _onStreamStats = (event) => {
+    if (!this.props.onStreamStats) {
+      return
+    }
+    this.props.onStreamStats(event)
+  }
+
+  _onVideoResume = (event) => {
+    if (!this.props.onVideoResume) {
+      return
+    }
+    this.props.onVideoResume(event)
+  }
+
+  _onVisibilityChange = (event) => {
+    if (!this.props.onVisibilityChange) {
+      return
+    }
+    this.props.onVisibilityChange(event)
+  }
+
+  _onDecoderSlot = (event) => {
+    if (!this.props.onDecoderSlot) {
+      return
+    }
+    this.props.onDecoderSlot(event)
+  }
+
+  // Android delivers the events raised within a frame as one batch, unpacked here in order.
+  _onEventBatch = (event) => {
+    const handlers = {
+      onMetaDataEvent: this._onMetaData,
+      onConfigured: this._onConfigured,
+      onPublisherStreamStatus: this._onPublisherStreamStatus,
+      onSubscriberStreamStatus: this._onSubscriberStreamStatus,
+      onUnpublishNotification: this._onUnpublishNotification,
+      onUnsubscribeNotification: this._onUnsubscribeNotification,
+      onReconnectStatus: this._onReconnectStatus,
+      onStartupTiming: this._onStartupTiming,
+      onStreamStats: this._onStreamStats,
+      onVideoResume: this._onVideoResume,
+      onVisibilityChange: this._onVisibilityChange,
+      onDecoderSlot: this._onDecoderSlot
+    }
+    event.nativeEvent.events.forEach((entry) => {
+      const handler = handlers[entry.name]
+      if (handler) {
+        handler({ nativeEvent: entry.payload })
+      }
+    })
+  }
+
   _refHandle = (video) => {
     this.red5provideo = video
   }
@@ -93,6 +181,13 @@ class R5VideoView extends React.Component {
             onSubscriberStreamStatus={this._onSubscriberStreamStatus}
             onUnsubscribeNotification={this._onUnsubscribeNotification}
             onUnpublishNotification={this._onUnpublishNotification}
+            onReconnectStatus={this._onReconnectStatus}
+            onStartupTiming={this._onStartupTiming}
+            onStreamStats={this._onStreamStats}
+            onVideoResume={this._onVideoResume}
+            onVisibilityChange={this._onVisibilityChange}
+            onDecoderSlot={this._onDecoderSlot}
+            onEventBatch={this._onEventBatch}
           />
   }
 
@@ -111,6 +206,7 @@ R5VideoView.propTypes = {
     framerate: PropTypes.number,                    // publisher only, fps
     useAdaptiveBitrateController: PropTypes.bool,   // publisher only
     useBackfacingCamera: PropTypes.bool,            // publisher only
+    useCamera2: PropTypes.bool,                     // publisher only. Android only, API 21+.
     audioBitrate: PropTypes.number,                 // publisher only, kb/s
     audioSampleRate: PropTypes.number,              // publisher only, hz, default iOS is 16000, default Android is 44100
     subscribeVideo: PropTypes.bool,                 // subscriber only
@@ -118,6 +214,18 @@ R5VideoView.propTypes = {
     enableBackgroundStreaming: PropTypes.bool,      // publisher and subscriber
     zOrderOnTop: PropTypes.bool,                    // publisher and subscriber. Android only.
     zOrderMediaOverlay: PropTypes.bool,             // publisher and subscriber. Android only.
+    autoReconnect: PropTypes.bool,                  // publisher and subscriber. Android only.
+    reconnectMaxAttempts: PropTypes.number,         // publisher and subscriber. Android only.
+    reconnectBaseDelay: PropTypes.number,           // publisher and subscriber. Android only, ms
+    reconnectMaxDelay: PropTypes.number,            // publisher and subscriber. Android only, ms
+    backgroundStreamName: PropTypes.string,         // subscriber only. Android only.
+    suspendWhenHidden: PropTypes.bool,              // subscriber only. Android only.
+    decodePriority: PropTypes.number,               // subscriber only. Android only.
+    preloadLimit: PropTypes.number,                 // subscriber only. Android only.
+    useTextureView: PropTypes.bool,                 // subscriber only. Android only.
+    statsInterval: PropTypes.number,                // publisher and subscriber. Android only, ms, 0 disables
+    statsHistorySize: PropTypes.number,             // publisher and subscriber. Android only, samples
+    statsReportInterval: PropTypes.number,          // publisher and subscriber. Android only, ms
     configuration: PropTypes.shape({
       host: PropTypes.string.isRequired,
       port: PropTypes.number.isRequired,
@@ -136,6 +244,12 @@ R5VideoView.propTypes = {
     onSubscriberStreamStatus: PropTypes.func,
     onUnsubscribeNotification: PropTypes.func,
     onUnpublishNotification: PropTypes.func,
+    onReconnectStatus: PropTypes.func,
+    onStartupTiming: PropTypes.func,
+    onStreamStats: PropTypes.func,
+    onVideoResume: PropTypes.func,
+    onVisibilityChange: PropTypes.func,
+    onDecoderSlot: PropTypes.func,
     ...ViewPropTypes
 }
 R5VideoView.defaultProps = {
@@ -153,10 +267,22 @@ R5VideoView.defaultProps = {
     audioBitrate: 32, // for HQ Audio: set to 128 + audioSampleRate: 44100
     useAdaptiveBitrateController: false,
     useBackfacingCamera: false,
+    useCamera2: false,
     audioMode: R5AudioMode.STANDARD,
     enableBackgroundStreaming: false,
+    suspendWhenHidden: false,
+    decodePriority: 0,
+    preloadLimit: 2,
+    useTextureView: false,
     zOrderOnTop: false,
-    zOrderMediaOverlay: false
+    zOrderMediaOverlay: false,
+    autoReconnect: false,
+    reconnectMaxAttempts: 5,
+    reconnectBaseDelay: 500,
+    reconnectMaxDelay: 10000,
+    statsInterval: 0,
+    statsHistorySize: 30,
+    statsReportInterval: 1000
 }
 
 let R5Video = requireNativeComponent('R5VideoView', R5VideoView)